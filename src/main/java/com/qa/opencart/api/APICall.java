@@ -0,0 +1,27 @@
+package com.qa.opencart.api;
+
+/**
+ * A request to run through {@link AsyncAPIClient}
+ *
+ * @param method HTTP method (GET, POST, PUT or DELETE)
+ * @param endpoint Endpoint relative to the base URL, or an absolute URL
+ * @param data Request body for POST/PUT, null otherwise
+ */
+public record APICall(String method, String endpoint, String data) {
+
+    public static APICall get(String endpoint) {
+        return new APICall("GET", endpoint, null);
+    }
+
+    public static APICall post(String endpoint, String data) {
+        return new APICall("POST", endpoint, data);
+    }
+
+    public static APICall put(String endpoint, String data) {
+        return new APICall("PUT", endpoint, data);
+    }
+
+    public static APICall delete(String endpoint) {
+        return new APICall("DELETE", endpoint, null);
+    }
+}
@@ -1,51 +1,202 @@
 package com.qa.opencart.api;
 
-import com.microsoft.playwright.APIRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.microsoft.playwright.APIRequestContext;
 import com.microsoft.playwright.APIResponse;
-import com.microsoft.playwright.Playwright;
+import com.microsoft.playwright.options.FormData;
 import com.microsoft.playwright.options.RequestOptions;
 
+import java.io.IOException;
+import java.net.URI;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Supplier;
 
 public class APIClient {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private final APIRequestContextPool pool;
     private final APIRequestContext requestContext;
     private final String baseUrl;
+    private final Map<String, String> headers;
+    private ResponseCache cache;
+    private boolean disposed;
 
     public APIClient(String baseUrl) {
+        this(baseUrl, defaultHeaders());
+    }
+
+    /**
+     * Create a client with its own cookie jar on the current thread's shared driver
+     *
+     * @param baseUrl Base URL of the API
+     * @param headers Extra HTTP headers sent with every request
+     */
+    public APIClient(String baseUrl, Map<String, String> headers) {
+        this(baseUrl, headers, false);
+    }
+
+    private APIClient(String baseUrl, Map<String, String> headers, boolean sharedSession) {
         this.baseUrl = baseUrl;
+        this.headers = Map.copyOf(headers);
+        this.pool = APIRequestContextPool.current();
+        this.requestContext = sharedSession ? pool.acquireShared(baseUrl, headers) : pool.acquire(baseUrl, headers);
+    }
+
+    /**
+     * Create a client that shares its cookies (login, cart) with every other shared-session
+     * client of this thread for the same base URL and headers
+     *
+     * @param baseUrl Base URL of the site
+     * @param headers Extra HTTP headers sent with every request
+     */
+    public static APIClient sharedSession(String baseUrl, Map<String, String> headers) {
+        return new APIClient(baseUrl, headers, true);
+    }
+
+    private static Map<String, String> defaultHeaders() {
         Map<String, String> headers = new HashMap<>();
         headers.put("Accept", "application/json");
         headers.put("Content-Type", "application/json");
-        
-        requestContext = Playwright
-            .create()
-            .request()
-            .newContext(new APIRequest.NewContextOptions()
-                .setBaseURL(baseUrl)
-                .setExtraHTTPHeaders(headers));
+        return headers;
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * Serve this client's GETs through a response cache (see {@link ResponseCache})
+     *
+     * @param cache Cache to use, e.g. {@link ResponseCache#shared()}; null turns caching off
+     */
+    public APIClient useCache(ResponseCache cache) {
+        this.cache = cache;
+        return this;
     }
 
     public APIResponse get(String endpoint) {
-        return requestContext.get(endpoint);
+        if (cache == null) {
+            return timed("GET", endpoint, () -> requestContext.get(endpoint));
+        }
+        if (ResponseCache.isBypassed()) {
+            cache.recordBypass();
+            return timed("GET", endpoint, () -> requestContext.get(endpoint));
+        }
+        return cachedGet(endpoint);
+    }
+
+    private APIResponse cachedGet(String endpoint) {
+        String key = ResponseCache.key(resolve(endpoint), headers, cookieIdentity());
+        CachedAPIResponse fresh = cache.getFresh(key);
+        if (fresh != null) {
+            return fresh;
+        }
+
+        String etag = cache.getETag(key);
+        CachedAPIResponse response = etag == null
+            ? timed("GET", endpoint, () -> requestContext.get(endpoint))
+            : timed("GET", endpoint, () -> requestContext.get(endpoint, RequestOptions.create().setHeader("If-None-Match", etag)));
+        if (response.status() == 304) {
+            CachedAPIResponse revalidated = cache.revalidated(key);
+            if (revalidated != null) {
+                return revalidated;
+            }
+            // Evicted since its ETag was read: a bare 304 has no body to serve, so ask again unconditionally
+            response = timed("GET", endpoint, () -> requestContext.get(endpoint));
+        }
+        cache.store(key, response);
+        return response;
+    }
+
+    /**
+     * The cookies this client's context holds, for the cache key: a response fetched in one
+     * session (logged in, with a cart) must never be served to another. Anonymous clients
+     * all have an empty jar and share entries.
+     */
+    private String cookieIdentity() {
+        try {
+            TreeSet<String> cookies = new TreeSet<>();
+            for (JsonNode cookie : objectMapper.readTree(storageState()).path("cookies")) {
+                cookies.add(cookie.path("domain").asText() + cookie.path("path").asText() + " "
+                    + cookie.path("name").asText() + "=" + cookie.path("value").asText());
+            }
+            return String.join("; ", cookies);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read the cookies of the API client", e);
+        }
     }
 
     public APIResponse post(String endpoint, String data) {
-        return requestContext.post(endpoint, RequestOptions.create().setData(data));
+        return timed("POST", endpoint, () -> requestContext.post(endpoint, RequestOptions.create().setData(data)));
+    }
+
+    /**
+     * POST an application/x-www-form-urlencoded body, as an HTML form would
+     */
+    public APIResponse postForm(String endpoint, Map<String, String> fields) {
+        FormData form = FormData.create();
+        fields.forEach(form::set);
+        return timed("POST", endpoint, () -> requestContext.post(endpoint, RequestOptions.create().setForm(form)));
     }
 
     public APIResponse put(String endpoint, String data) {
-        return requestContext.put(endpoint, RequestOptions.create().setData(data));
+        return timed("PUT", endpoint, () -> requestContext.put(endpoint, RequestOptions.create().setData(data)));
     }
 
     public APIResponse delete(String endpoint) {
-        return requestContext.delete(endpoint);
+        return timed("DELETE", endpoint, () -> requestContext.delete(endpoint));
+    }
+
+    /**
+     * Run a request on the driver thread, record its latency in {@link APIMetrics} (in the
+     * calling thread's scope) and return it read into memory, usable from any thread
+     */
+    private CachedAPIResponse timed(String method, String endpoint, Supplier<APIResponse> request) {
+        Set<String> scope = APIMetrics.scope();
+        return pool.call(() -> APIMetrics.inScope(scope, () -> {
+            long start = System.nanoTime();
+            APIResponse response;
+            try {
+                response = request.get();
+            } catch (RuntimeException e) {
+                APIMetrics.record(method, resolve(endpoint), System.nanoTime() - start, 0);
+                throw e;
+            }
+            APIMetrics.record(method, response.url(), System.nanoTime() - start, response.status());
+            try {
+                return CachedAPIResponse.copyOf(response);
+            } finally {
+                response.dispose();
+            }
+        }));
+    }
+
+    private String resolve(String endpoint) {
+        try {
+            return URI.create(baseUrl).resolve(endpoint).toString();
+        } catch (IllegalArgumentException e) {
+            return endpoint;
+        }
+    }
+
+    /**
+     * Cookies and local storage collected by this client, in Playwright's storage state JSON format
+     */
+    public String storageState() {
+        return pool.call(requestContext::storageState);
     }
 
+    /**
+     * Dispose the client's context (a shared-session context stays for the other clients).
+     * The thread's driver stays warm for the next client.
+     */
     public void dispose() {
-        if (requestContext != null) {
-            requestContext.dispose();
+        if (!disposed) {
+            disposed = true;
+            pool.release(requestContext);
         }
     }
-} 
\ No newline at end of file
+}
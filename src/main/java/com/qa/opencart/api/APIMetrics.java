@@ -0,0 +1,201 @@
+package com.qa.opencart.api;
+
+import com.qa.opencart.utils.LatencyHistogram;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Latency of every {@link APIClient} call, kept per endpoint for the whole JVM.
+ *
+ * Endpoints are keyed by method and templated path, so calls to /users/17 and /users/42
+ * land in the same "GET /users/{id}" histogram. Numeric, UUID and long hex path segments
+ * become {id}; the query string is dropped except for routing parameters (OpenCart's route),
+ * which select the page rather than identify a record.
+ */
+public final class APIMetrics {
+    private static final Set<String> ROUTING_PARAMS = Set.of("route");
+    private static final Pattern ID_SEGMENT = Pattern.compile(
+        "\\d+|[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}|[0-9a-fA-F]{16,}");
+
+    private static final Map<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+    // The endpoints a test has called; lanes working for the test record into the test's set (see inScope)
+    private static final ThreadLocal<Set<String>> touchedByThread = ThreadLocal.withInitial(ConcurrentHashMap::newKeySet);
+
+    /**
+     * Latency and error count of one endpoint
+     */
+    public static class EndpointMetrics {
+        private final String key;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+
+        EndpointMetrics(String key) {
+            this.key = key;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        public long getErrors() {
+            return errors.sum();
+        }
+    }
+
+    private APIMetrics() {
+    }
+
+    /**
+     * Record one completed call
+     *
+     * @param method HTTP method
+     * @param url Request URL (absolute or relative)
+     * @param nanos Time until the response headers arrived
+     * @param status HTTP status, or 0 when the call failed without a response
+     */
+    public static void record(String method, String url, long nanos, int status) {
+        String key = endpointKey(method, url);
+        EndpointMetrics metrics = endpoints.computeIfAbsent(key, EndpointMetrics::new);
+        metrics.latency.recordNanos(nanos);
+        if (status == 0 || status >= 400) {
+            metrics.errors.increment();
+        }
+        touchedByThread.get().add(key);
+    }
+
+    /**
+     * Key of the endpoint a call belongs to, e.g. "GET /api/users/{id}"
+     */
+    public static String endpointKey(String method, String url) {
+        URI uri;
+        try {
+            uri = URI.create(url.replace(" ", "%20"));
+        } catch (IllegalArgumentException e) {
+            return method.toUpperCase() + " " + url.split("\\?", 2)[0];
+        }
+        StringBuilder key = new StringBuilder(method.toUpperCase()).append(' ');
+
+        String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+        String[] segments = path.split("/", -1);
+        for (int i = 0; i < segments.length; i++) {
+            if (i > 0) {
+                key.append('/');
+            }
+            key.append(ID_SEGMENT.matcher(segments[i]).matches() ? "{id}" : segments[i]);
+        }
+
+        List<String> routing = new ArrayList<>();
+        if (uri.getRawQuery() != null) {
+            for (String param : uri.getRawQuery().split("&")) {
+                String name = param.split("=", 2)[0];
+                if (ROUTING_PARAMS.contains(name)) {
+                    routing.add(param);
+                }
+            }
+        }
+        if (!routing.isEmpty()) {
+            key.append('?').append(String.join("&", routing));
+        }
+        return key.toString();
+    }
+
+    /**
+     * Every endpoint seen so far, sorted by key
+     */
+    public static Map<String, EndpointMetrics> snapshot() {
+        return new TreeMap<>(endpoints);
+    }
+
+    public static EndpointMetrics get(String key) {
+        return endpoints.get(key);
+    }
+
+    /**
+     * Forget the endpoints the current thread has called, e.g. at the start of a test.
+     * A new set is started, so lanes still finishing the previous test's calls do not leak into it
+     */
+    public static void clearTouched() {
+        touchedByThread.set(ConcurrentHashMap.newKeySet());
+    }
+
+    /**
+     * Endpoints the current thread has called since {@link #clearTouched()}, including calls it
+     * handed to other threads that ran them {@link #inScope in its scope}
+     */
+    public static Set<String> touched() {
+        return new HashSet<>(touchedByThread.get());
+    }
+
+    /**
+     * The current thread's set of touched endpoints, to hand to a thread that calls on its behalf
+     */
+    static Set<String> scope() {
+        return touchedByThread.get();
+    }
+
+    /**
+     * Run a call on this thread, recording the endpoints it touches into another thread's scope
+     */
+    static <T> T inScope(Set<String> scope, Supplier<T> call) {
+        Set<String> previous = touchedByThread.get();
+        touchedByThread.set(scope);
+        try {
+            return call.get();
+        } finally {
+            touchedByThread.set(previous);
+        }
+    }
+
+    public static void reset() {
+        endpoints.clear();
+        touchedByThread.remove();
+    }
+
+    /**
+     * Percentile rows for report tables: a header row followed by one row per endpoint
+     */
+    public static String[][] toRows() {
+        Map<String, EndpointMetrics> current = snapshot();
+        String[][] rows = new String[current.size() + 1][];
+        rows[0] = new String[] {"Endpoint", "Calls", "Errors", "p50 ms", "p95 ms", "p99 ms", "max ms"};
+        int i = 1;
+        for (EndpointMetrics metrics : current.values()) {
+            LatencyHistogram latency = metrics.getLatency();
+            rows[i++] = new String[] {
+                metrics.getKey(),
+                String.valueOf(latency.getCount()),
+                String.valueOf(metrics.getErrors()),
+                String.format("%.1f", latency.getPercentileMillis(50)),
+                String.format("%.1f", latency.getPercentileMillis(95)),
+                String.format("%.1f", latency.getPercentileMillis(99)),
+                String.format("%.1f", latency.getMaxMillis())
+            };
+        }
+        return rows;
+    }
+
+    /**
+     * Fixed-width percentile table for the console
+     */
+    public static String toTable() {
+        StringBuilder table = new StringBuilder();
+        for (String[] row : toRows()) {
+            table.append(String.format("%-60s %7s %7s %9s %9s %9s %9s%n", (Object[]) row));
+        }
+        return table.toString();
+    }
+}
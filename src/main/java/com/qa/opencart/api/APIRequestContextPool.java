@@ -0,0 +1,280 @@
+package com.qa.opencart.api;
+
+import com.microsoft.playwright.APIRequest;
+import com.microsoft.playwright.APIRequestContext;
+import com.microsoft.playwright.Playwright;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Shared Playwright drivers for {@link APIClient}s, one per thread that creates clients.
+ *
+ * {@code Playwright.create()} starts a Node driver process, so starting one per client is
+ * slow and leaks processes. The driver of a thread's pool is started on the first lease and
+ * stays warm for later clients after the last one is disposed; it is shut down once it has
+ * been idle for the idle timeout, or by {@link #close()} / {@link #closeAll()}.
+ *
+ * Playwright objects must only be used from the thread that created them, so each pool runs
+ * its driver on a dedicated thread and clients hand their calls to it with {@link #call}.
+ * That is also what lets suite teardown close the pools of every thread.
+ *
+ * Every lease is a new context with its own cookie jar, so a login in one client never
+ * reaches another. Clients that should share a session lease the thread's shared context
+ * for their base URL and headers instead ({@link #acquireShared}).
+ */
+public class APIRequestContextPool {
+    private static final ThreadLocal<APIRequestContextPool> current = ThreadLocal.withInitial(APIRequestContextPool::new);
+    private static final Set<APIRequestContextPool> allPools = ConcurrentHashMap.newKeySet();
+    private static final ScheduledExecutorService reaper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "api-driver-reaper");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static volatile Duration idleTimeout = Duration.ofSeconds(60);
+
+    private final String ownerThread = Thread.currentThread().getName();
+    // Guarded by this
+    private Driver driver;
+    private int references;
+    private long idleSinceNanos;
+
+    private record ContextKey(String baseUrl, Map<String, String> headers) {
+    }
+
+    /**
+     * One running driver: its thread, and the Playwright objects used only on that thread
+     */
+    private static final class Driver {
+        private final ThreadPoolExecutor executor;
+        private final Map<ContextKey, APIRequestContext> sharedContexts = new HashMap<>();
+        private Thread thread;
+        private Playwright playwright;
+
+        Driver(String ownerThread) {
+            executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                thread = new Thread(runnable, "api-driver-" + ownerThread);
+                thread.setDaemon(true);
+                return thread;
+            });
+            // Start the thread now, so calls can tell whether they already run on it
+            executor.prestartCoreThread();
+        }
+
+        Playwright playwright(String ownerThread) {
+            if (playwright == null) {
+                playwright = Playwright.create();
+                System.out.println("Started shared Playwright driver for API clients of thread: " + ownerThread);
+            }
+            return playwright;
+        }
+
+        void close() {
+            for (APIRequestContext context : sharedContexts.values()) {
+                try {
+                    context.dispose();
+                } catch (Exception e) {
+                    System.err.println("Failed to dispose API request context: " + e.getMessage());
+                }
+            }
+            sharedContexts.clear();
+            if (playwright != null) {
+                playwright.close();
+                playwright = null;
+            }
+        }
+    }
+
+    private APIRequestContextPool() {
+    }
+
+    /**
+     * Get the pool of the current thread
+     */
+    public static APIRequestContextPool current() {
+        return current.get();
+    }
+
+    /**
+     * Apply apiDriver.idleTimeoutSeconds from config.properties
+     */
+    public static void configure(Properties prop) {
+        idleTimeout = Duration.ofSeconds(Long.parseLong(
+            prop.getProperty("apiDriver.idleTimeoutSeconds", String.valueOf(idleTimeout.toSeconds())).trim()));
+    }
+
+    /**
+     * Lease a new context with its own cookie jar, starting the driver if needed
+     *
+     * @param baseUrl Base URL of the API
+     * @param headers Extra HTTP headers sent with every request
+     * @return The context; hand it back with {@link #release(APIRequestContext)}
+     */
+    public APIRequestContext acquire(String baseUrl, Map<String, String> headers) {
+        ContextKey key = new ContextKey(baseUrl, Map.copyOf(headers));
+        return lease(running -> newContext(running, key));
+    }
+
+    /**
+     * Lease the thread's shared context for the base URL and headers; clients leasing the same
+     * one share its cookies (one session)
+     *
+     * @return The context; hand it back with {@link #release(APIRequestContext)}
+     */
+    public APIRequestContext acquireShared(String baseUrl, Map<String, String> headers) {
+        ContextKey key = new ContextKey(baseUrl, Map.copyOf(headers));
+        return lease(running -> running.sharedContexts.computeIfAbsent(key, k -> newContext(running, k)));
+    }
+
+    /**
+     * Hand back a lease: a context of its own is disposed, a shared one stays for the next client.
+     * The driver stays warm until it has been idle for the idle timeout.
+     */
+    public void release(APIRequestContext context) {
+        if (context != null) {
+            try {
+                onDriver(running -> {
+                    if (!running.sharedContexts.containsValue(context)) {
+                        context.dispose();
+                    }
+                    return null;
+                });
+            } catch (IllegalStateException | RejectedExecutionException e) {
+                // Pool already closed: the context went with the driver
+            }
+        }
+        synchronized (this) {
+            if (references > 0 && --references == 0) {
+                idleSinceNanos = System.nanoTime();
+                reaper.schedule(() -> shutDown(true), idleTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Run a Playwright call on the driver thread and wait for its result
+     *
+     * @throws IllegalStateException If the pool is closed
+     */
+    <T> T call(Supplier<T> action) {
+        return onDriver(running -> action.get());
+    }
+
+    /**
+     * Number of clients currently holding a lease
+     */
+    public synchronized int getReferences() {
+        return references;
+    }
+
+    /**
+     * Dispose every context and shut the driver down; callable from any thread.
+     * The pool starts a new driver if its thread creates another client.
+     */
+    public void close() {
+        shutDown(false);
+    }
+
+    /**
+     * Close the pools of every thread, typically at the end of the suite
+     */
+    public static void closeAll() {
+        for (APIRequestContextPool pool : new ArrayList<>(allPools)) {
+            pool.close();
+        }
+    }
+
+    private APIRequestContext lease(Function<Driver, APIRequestContext> open) {
+        synchronized (this) {
+            if (driver == null) {
+                driver = new Driver(ownerThread);
+                allPools.add(this);
+            }
+            references++;
+        }
+        try {
+            return onDriver(open);
+        } catch (RuntimeException e) {
+            release(null);
+            throw e;
+        }
+    }
+
+    private <T> T onDriver(Function<Driver, T> action) {
+        Driver running;
+        synchronized (this) {
+            running = driver;
+        }
+        if (running == null) {
+            throw new IllegalStateException("API context pool of thread " + ownerThread + " is closed");
+        }
+        if (Thread.currentThread() == running.thread) {
+            return action.apply(running);
+        }
+        try {
+            return running.executor.submit(() -> action.apply(running)).get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new RuntimeException("API driver call failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the API driver", e);
+        }
+    }
+
+    private void shutDown(boolean onlyIfIdle) {
+        Driver stopping;
+        synchronized (this) {
+            if (driver == null) {
+                return;
+            }
+            if (onlyIfIdle && (references > 0 || System.nanoTime() - idleSinceNanos < idleTimeout.toNanos())) {
+                return;
+            }
+            if (onlyIfIdle) {
+                System.out.println("Stopping idle Playwright driver for API clients of thread: " + ownerThread);
+            } else if (references > 0) {
+                System.out.println("Closing API context pool of thread " + ownerThread + " with "
+                    + references + " client(s) still open");
+            }
+            stopping = driver;
+            driver = null;
+            references = 0;
+            allPools.remove(this);
+        }
+        stopping.executor.execute(stopping::close);
+        stopping.executor.shutdown();
+        try {
+            if (!stopping.executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                System.err.println("API driver of thread " + ownerThread + " did not shut down within 30 s");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private APIRequestContext newContext(Driver running, ContextKey key) {
+        return running.playwright(ownerThread).request().newContext(new APIRequest.NewContextOptions()
+            .setBaseURL(key.baseUrl())
+            .setExtraHTTPHeaders(key.headers()));
+    }
+}
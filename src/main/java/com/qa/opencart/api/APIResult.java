@@ -0,0 +1,35 @@
+package com.qa.opencart.api;
+
+import com.microsoft.playwright.APIResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Fully read response of an asynchronous API call.
+ * Unlike {@link APIResponse} it holds no reference to the Playwright driver,
+ * so it can be used from any thread once the future completes.
+ *
+ * @param status HTTP status code
+ * @param statusText HTTP status text
+ * @param url Final URL of the response
+ * @param headers Response headers (lower-case names)
+ * @param body Response body
+ * @param durationMs Time from sending the request to reading the body
+ */
+public record APIResult(int status, String statusText, String url, Map<String, String> headers,
+                        byte[] body, long durationMs) {
+
+    static APIResult from(APIResponse response, long durationMs) {
+        return new APIResult(response.status(), response.statusText(), response.url(),
+            Map.copyOf(response.headers()), response.body(), durationMs);
+    }
+
+    public boolean ok() {
+        return status >= 200 && status <= 299;
+    }
+
+    public String text() {
+        return body == null ? "" : new String(body, StandardCharsets.UTF_8);
+    }
+}
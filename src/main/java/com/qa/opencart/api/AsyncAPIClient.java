@@ -0,0 +1,213 @@
+package com.qa.opencart.api;
+
+import com.microsoft.playwright.APIResponse;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Asynchronous API execution for setup and verification steps that fire many independent requests.
+ *
+ * The client owns a fixed number of lanes: threads that each hold their own {@link APIClient}
+ * (and therefore their own driver from {@link APIRequestContextPool}). Calls wait in one shared
+ * queue and the next free lane takes the oldest, so a slow response never holds up the calls
+ * behind it while another lane is idle. Calls are limited per host and complete with an
+ * {@link APIResult} that is safe to read from any thread.
+ */
+public class AsyncAPIClient implements AutoCloseable {
+    private static final int DEFAULT_LANES = 4;
+
+    private final String baseUrl;
+    private final ThreadPoolExecutor lanes;
+    private final ThreadLocal<APIClient> laneClient = new ThreadLocal<>();
+    // Every lane's client and driver, so close() can shut them down from the calling thread
+    private final Queue<Lane> openLanes = new ConcurrentLinkedQueue<>();
+    private final HostLimiter hostLimiter;
+
+    private record Lane(APIClient client, APIRequestContextPool pool) {
+    }
+
+    public AsyncAPIClient(String baseUrl) {
+        this(baseUrl, DEFAULT_LANES, DEFAULT_LANES);
+    }
+
+    /**
+     * Create an asynchronous client
+     *
+     * @param baseUrl Base URL of the API
+     * @param laneCount Number of lanes (requests that can be in flight at once)
+     * @param perHostLimit Maximum concurrent requests to any single host
+     */
+    public AsyncAPIClient(String baseUrl, int laneCount, int perHostLimit) {
+        this.baseUrl = baseUrl;
+        this.hostLimiter = new HostLimiter(perHostLimit);
+        AtomicInteger laneNumber = new AtomicInteger();
+        this.lanes = new ThreadPoolExecutor(laneCount, laneCount, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, "api-lane-" + laneNumber.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    /**
+     * Override the concurrency limit of one host (before the first request to it)
+     *
+     * @param host Host name, with ":port" when the URL has an explicit port
+     * @param limit Maximum concurrent requests to the host
+     */
+    public AsyncAPIClient setHostLimit(String host, int limit) {
+        hostLimiter.setLimit(host, limit);
+        return this;
+    }
+
+    public CompletableFuture<APIResult> get(String endpoint) {
+        return send(APICall.get(endpoint));
+    }
+
+    public CompletableFuture<APIResult> post(String endpoint, String data) {
+        return send(APICall.post(endpoint, data));
+    }
+
+    public CompletableFuture<APIResult> put(String endpoint, String data) {
+        return send(APICall.put(endpoint, data));
+    }
+
+    public CompletableFuture<APIResult> delete(String endpoint) {
+        return send(APICall.delete(endpoint));
+    }
+
+    /**
+     * Queue a call; it runs once a permit for its host is free
+     *
+     * @param call Request to send
+     * @return Future completed with the fully read response
+     */
+    public CompletableFuture<APIResult> send(APICall call) {
+        String host = hostOf(call.endpoint());
+        // Latency budgets are checked per test: the lane records into the caller's endpoint set
+        Set<String> scope = APIMetrics.scope();
+        return hostLimiter.acquire(host)
+            .thenCompose(permit -> CompletableFuture.supplyAsync(
+                () -> APIMetrics.inScope(scope, () -> execute(call)), lanes))
+            .whenComplete((result, error) -> hostLimiter.release(host));
+    }
+
+    /**
+     * Fan the calls out and collect the results in the same order
+     *
+     * @param calls Requests to send
+     * @return Future completed when every call has completed
+     */
+    public CompletableFuture<List<APIResult>> batch(List<APICall> calls) {
+        List<CompletableFuture<APIResult>> futures = new ArrayList<>();
+        for (APICall call : calls) {
+            futures.add(send(call));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+            .thenApply(done -> futures.stream().map(CompletableFuture::join).collect(Collectors.toList()));
+    }
+
+    /**
+     * Blocking variant of {@link #batch(List)} for test steps
+     */
+    public List<APIResult> batchAndWait(List<APICall> calls) {
+        return batch(calls).join();
+    }
+
+    /**
+     * Start every lane's driver and client ahead of the first request
+     */
+    public void warmUp() {
+        int laneCount = lanes.getCorePoolSize();
+        // Each task holds its lane until every lane has taken one, so all lanes get a client
+        CountDownLatch allLanes = new CountDownLatch(laneCount);
+        List<CompletableFuture<Void>> lanesReady = new ArrayList<>();
+        for (int i = 0; i < laneCount; i++) {
+            lanesReady.add(CompletableFuture.runAsync(() -> {
+                laneClient();
+                allLanes.countDown();
+                try {
+                    allLanes.await(30, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, lanes));
+        }
+        CompletableFuture.allOf(lanesReady.toArray(new CompletableFuture[0])).join();
+    }
+
+    /**
+     * Stop the lanes, then dispose their clients and shut their drivers down
+     */
+    @Override
+    public void close() {
+        lanes.shutdown();
+        try {
+            if (!lanes.awaitTermination(30, TimeUnit.SECONDS)) {
+                lanes.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            lanes.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        // Pools run their drivers on their own threads, so they can be closed from here
+        for (Lane lane; (lane = openLanes.poll()) != null; ) {
+            lane.client().dispose();
+            lane.pool().close();
+        }
+    }
+
+    private APIClient laneClient() {
+        APIClient client = laneClient.get();
+        if (client == null) {
+            client = new APIClient(baseUrl);
+            laneClient.set(client);
+            openLanes.add(new Lane(client, APIRequestContextPool.current()));
+        }
+        return client;
+    }
+
+    private APIResult execute(APICall call) {
+        APIClient client = laneClient();
+        long start = System.nanoTime();
+        APIResponse response;
+        switch (call.method().toUpperCase()) {
+            case "GET":
+                response = client.get(call.endpoint());
+                break;
+            case "POST":
+                response = client.post(call.endpoint(), call.data());
+                break;
+            case "PUT":
+                response = client.put(call.endpoint(), call.data());
+                break;
+            case "DELETE":
+                response = client.delete(call.endpoint());
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported HTTP method: " + call.method());
+        }
+        try {
+            return APIResult.from(response, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } finally {
+            response.dispose();
+        }
+    }
+
+    private String hostOf(String endpoint) {
+        URI uri = URI.create(baseUrl).resolve(endpoint);
+        return uri.getPort() == -1 ? uri.getHost() : uri.getHost() + ":" + uri.getPort();
+    }
+}
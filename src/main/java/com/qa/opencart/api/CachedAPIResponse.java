@@ -0,0 +1,93 @@
+package com.qa.opencart.api;
+
+import com.microsoft.playwright.APIResponse;
+import com.microsoft.playwright.options.HttpHeader;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fully read copy of an {@link APIResponse}, as returned by {@link APIClient} and served
+ * by {@link ResponseCache}. It holds no driver resources, so {@link #dispose()} does
+ * nothing and the response can be read any number of times from any thread.
+ */
+public class CachedAPIResponse implements APIResponse {
+    private final String url;
+    private final int status;
+    private final String statusText;
+    private final Map<String, String> headers;
+    private final List<HttpHeader> headersArray;
+    private final byte[] body;
+
+    CachedAPIResponse(String url, int status, String statusText, Map<String, String> headers,
+                      List<HttpHeader> headersArray, byte[] body) {
+        this.url = url;
+        this.status = status;
+        this.statusText = statusText;
+        this.headers = Map.copyOf(headers);
+        this.headersArray = List.copyOf(headersArray);
+        this.body = body;
+    }
+
+    /**
+     * Read a live response into memory; the caller still disposes the live response
+     */
+    static CachedAPIResponse copyOf(APIResponse response) {
+        return new CachedAPIResponse(response.url(), response.status(), response.statusText(),
+            response.headers(), response.headersArray(), response.body());
+    }
+
+    /**
+     * Size of the body, used to bound the cache
+     */
+    int size() {
+        return body.length;
+    }
+
+    @Override
+    public byte[] body() {
+        return body.clone();
+    }
+
+    @Override
+    public void dispose() {
+        // Nothing to release: the body is already in memory
+    }
+
+    @Override
+    public Map<String, String> headers() {
+        return headers;
+    }
+
+    @Override
+    public List<HttpHeader> headersArray() {
+        return new ArrayList<>(headersArray);
+    }
+
+    @Override
+    public boolean ok() {
+        return status >= 200 && status <= 299;
+    }
+
+    @Override
+    public int status() {
+        return status;
+    }
+
+    @Override
+    public String statusText() {
+        return statusText;
+    }
+
+    @Override
+    public String text() {
+        return new String(body, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String url() {
+        return url;
+    }
+}
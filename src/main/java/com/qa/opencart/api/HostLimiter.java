@@ -0,0 +1,66 @@
+package com.qa.opencart.api;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Non-blocking per-host concurrency limit.
+ * A permit is handed out as a future, so requests waiting for a busy host
+ * queue up without holding a thread.
+ */
+class HostLimiter {
+    private final int defaultLimit;
+    private final Map<String, Integer> limits = new ConcurrentHashMap<>();
+    private final Map<String, HostPermits> hosts = new ConcurrentHashMap<>();
+
+    private static class HostPermits {
+        private int available;
+        private final Deque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+
+        HostPermits(int available) {
+            this.available = available;
+        }
+    }
+
+    HostLimiter(int defaultLimit) {
+        this.defaultLimit = defaultLimit;
+    }
+
+    void setLimit(String host, int limit) {
+        limits.put(host, limit);
+    }
+
+    CompletableFuture<Void> acquire(String host) {
+        HostPermits permits = hosts.computeIfAbsent(host, h -> new HostPermits(limits.getOrDefault(h, defaultLimit)));
+        synchronized (permits) {
+            if (permits.available > 0) {
+                permits.available--;
+                return CompletableFuture.completedFuture(null);
+            }
+            CompletableFuture<Void> waiter = new CompletableFuture<>();
+            permits.waiters.add(waiter);
+            return waiter;
+        }
+    }
+
+    void release(String host) {
+        HostPermits permits = hosts.get(host);
+        if (permits == null) {
+            return;
+        }
+        CompletableFuture<Void> next;
+        synchronized (permits) {
+            next = permits.waiters.poll();
+            if (next == null) {
+                permits.available++;
+            }
+        }
+        // Hand the permit straight to the next waiter, outside the lock
+        if (next != null) {
+            next.complete(null);
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.qa.opencart.api;
+
+import com.qa.opencart.utils.LatencyHistogram;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Load mode for {@link APIClient}: replays a scripted set of endpoints against the
+ * system under test and records per-endpoint latency, throughput and error rate.
+ *
+ * Two scheduling models are supported:
+ * <ul>
+ *   <li>Open model ({@link Builder#constantRate(double)}): requests start at a constant
+ *       arrival rate whatever the response times. Latency is measured from the intended
+ *       start time, so a slow server is not hidden by the generator backing off.</li>
+ *   <li>Closed model ({@link Builder#virtualUsers(int)}): N virtual users each send their
+ *       next request as soon as the previous one completes.</li>
+ * </ul>
+ * Requests run on an {@link AsyncAPIClient}, so the lane count bounds the real concurrency.
+ */
+public class LoadGenerator {
+    private final String name;
+    private final String baseUrl;
+    private final List<Endpoint> endpoints;
+    private final int[] schedule;
+    private final double requestsPerSecond;
+    private final int virtualUsers;
+    private final Duration duration;
+    private final int lanes;
+    private final int maxOutstanding;
+
+    /**
+     * One scripted endpoint
+     *
+     * @param name Name used in the report
+     * @param call Request to replay
+     * @param weight Relative share of the traffic
+     */
+    public record Endpoint(String name, APICall call, int weight) {
+    }
+
+    private static class EndpointStats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final AtomicLong requests = new AtomicLong();
+        final AtomicLong errors = new AtomicLong();
+    }
+
+    private LoadGenerator(Builder builder) {
+        this.name = builder.name;
+        this.baseUrl = builder.baseUrl;
+        this.endpoints = List.copyOf(builder.endpoints);
+        this.requestsPerSecond = builder.requestsPerSecond;
+        this.virtualUsers = builder.virtualUsers;
+        this.duration = builder.duration;
+        this.lanes = builder.lanes;
+        this.maxOutstanding = builder.maxOutstanding;
+
+        // Weighted round robin: endpoint indexes repeated by weight, walked in order
+        List<Integer> slots = new ArrayList<>();
+        for (int i = 0; i < endpoints.size(); i++) {
+            for (int w = 0; w < Math.max(1, endpoints.get(i).weight()); w++) {
+                slots.add(i);
+            }
+        }
+        this.schedule = slots.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    public static Builder builder(String name, String baseUrl) {
+        return new Builder(name, baseUrl);
+    }
+
+    public static class Builder {
+        private final String name;
+        private final String baseUrl;
+        private final List<Endpoint> endpoints = new ArrayList<>();
+        private double requestsPerSecond;
+        private int virtualUsers;
+        private Duration duration = Duration.ofSeconds(30);
+        private int lanes = 4;
+        private int maxOutstanding = 1000;
+
+        private Builder(String name, String baseUrl) {
+            this.name = name;
+            this.baseUrl = baseUrl;
+        }
+
+        public Builder endpoint(String name, APICall call, int weight) {
+            endpoints.add(new Endpoint(name, call, weight));
+            return this;
+        }
+
+        public Builder endpoint(String name, APICall call) {
+            return endpoint(name, call, 1);
+        }
+
+        /** Open model: start this many requests per second */
+        public Builder constantRate(double requestsPerSecond) {
+            this.requestsPerSecond = requestsPerSecond;
+            this.virtualUsers = 0;
+            return this;
+        }
+
+        /** Closed model: this many users looping back to back */
+        public Builder virtualUsers(int virtualUsers) {
+            this.virtualUsers = virtualUsers;
+            this.requestsPerSecond = 0;
+            return this;
+        }
+
+        public Builder duration(Duration duration) {
+            this.duration = duration;
+            return this;
+        }
+
+        /** Number of driver lanes executing requests */
+        public Builder lanes(int lanes) {
+            this.lanes = lanes;
+            return this;
+        }
+
+        /** Open model only: arrivals beyond this many in-flight requests are counted as errors */
+        public Builder maxOutstanding(int maxOutstanding) {
+            this.maxOutstanding = maxOutstanding;
+            return this;
+        }
+
+        public LoadGenerator build() {
+            if (endpoints.isEmpty()) {
+                throw new IllegalStateException("Load scenario " + name + " has no endpoints");
+            }
+            if (requestsPerSecond <= 0 && virtualUsers <= 0) {
+                throw new IllegalStateException("Load scenario " + name + " needs a constant rate or virtual users");
+            }
+            return new LoadGenerator(this);
+        }
+    }
+
+    /**
+     * Run the scenario for its duration and wait for the in-flight requests to finish
+     *
+     * @return Per-endpoint results
+     */
+    public LoadReport run() {
+        Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+        for (Endpoint endpoint : endpoints) {
+            stats.put(endpoint.name(), new EndpointStats());
+        }
+
+        String model = requestsPerSecond > 0
+            ? "open, " + requestsPerSecond + " req/s"
+            : "closed, " + virtualUsers + " virtual users";
+        System.out.println("Starting load scenario " + name + " (" + model + ") for " + duration.toSeconds() + " s");
+
+        long elapsedNanos;
+        try (AsyncAPIClient client = new AsyncAPIClient(baseUrl, lanes, lanes)) {
+            // Start the lane drivers first so their startup is not measured as latency
+            client.warmUp();
+            long startNanos = System.nanoTime();
+            if (requestsPerSecond > 0) {
+                runOpenModel(client, stats, startNanos);
+            } else {
+                runClosedModel(client, stats, startNanos);
+            }
+            elapsedNanos = System.nanoTime() - startNanos;
+        }
+        // Requests are only sent during the duration: waiting for the last ones to finish is not throughput
+        long windowNanos = Math.min(elapsedNanos, duration.toNanos());
+
+        Map<String, LoadReport.EndpointResult> results = new LinkedHashMap<>();
+        for (Endpoint endpoint : endpoints) {
+            EndpointStats s = stats.get(endpoint.name());
+            results.put(endpoint.name(), LoadReport.EndpointResult.of(endpoint.name(), s.requests.get(),
+                s.errors.get(), s.latency, windowNanos));
+        }
+        LoadReport report = new LoadReport(name, model, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), results);
+        System.out.println(report.toTable());
+        return report;
+    }
+
+    private void runOpenModel(AsyncAPIClient client, Map<String, EndpointStats> stats, long startNanos) {
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond);
+        long endNanos = startNanos + duration.toNanos();
+        AtomicInteger outstanding = new AtomicInteger();
+        List<CompletableFuture<?>> inFlight = new ArrayList<>();
+
+        for (long i = 0; ; i++) {
+            long intendedStart = startNanos + i * intervalNanos;
+            if (intendedStart >= endNanos) {
+                break;
+            }
+            long wait = intendedStart - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Endpoint endpoint = endpoints.get(schedule[(int) (i % schedule.length)]);
+            EndpointStats endpointStats = stats.get(endpoint.name());
+            if (outstanding.get() >= maxOutstanding) {
+                // The system cannot keep up with the arrival rate: count the arrival as failed
+                endpointStats.requests.incrementAndGet();
+                endpointStats.errors.incrementAndGet();
+                continue;
+            }
+            outstanding.incrementAndGet();
+            inFlight.add(client.send(endpoint.call())
+                .whenComplete((result, error) -> {
+                    outstanding.decrementAndGet();
+                    record(endpointStats, intendedStart, result, error);
+                }));
+            inFlight.removeIf(CompletableFuture::isDone);
+        }
+        awaitAll(inFlight);
+    }
+
+    private void runClosedModel(AsyncAPIClient client, Map<String, EndpointStats> stats, long startNanos) {
+        long endNanos = startNanos + duration.toNanos();
+        AtomicLong sequence = new AtomicLong();
+        List<CompletableFuture<Void>> users = new ArrayList<>();
+        Set<String> scope = APIMetrics.scope();
+        for (int u = 0; u < virtualUsers; u++) {
+            CompletableFuture<Void> done = new CompletableFuture<>();
+            nextIteration(client, stats, sequence, endNanos, scope, done);
+            users.add(done);
+        }
+        awaitAll(users);
+    }
+
+    private void nextIteration(AsyncAPIClient client, Map<String, EndpointStats> stats, AtomicLong sequence,
+                               long endNanos, Set<String> scope, CompletableFuture<Void> done) {
+        long start = System.nanoTime();
+        if (start >= endNanos) {
+            done.complete(null);
+            return;
+        }
+        Endpoint endpoint = endpoints.get(schedule[(int) (sequence.getAndIncrement() % schedule.length)]);
+        EndpointStats endpointStats = stats.get(endpoint.name());
+        // Later iterations are sent from pool threads: keep recording into the test's endpoint set
+        APIMetrics.inScope(scope, () -> client.send(endpoint.call())).whenCompleteAsync((result, error) -> {
+            record(endpointStats, start, result, error);
+            nextIteration(client, stats, sequence, endNanos, scope, done);
+        });
+    }
+
+    private void record(EndpointStats stats, long startNanos, APIResult result, Throwable error) {
+        stats.latency.recordNanos(System.nanoTime() - startNanos);
+        stats.requests.incrementAndGet();
+        if (error != null || result == null || result.status() >= 400) {
+            stats.errors.incrementAndGet();
+        }
+    }
+
+    private void awaitAll(List<? extends CompletableFuture<?>> futures) {
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } catch (Exception e) {
+            // Failures are already counted per endpoint
+        }
+    }
+}
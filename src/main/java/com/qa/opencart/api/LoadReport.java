@@ -0,0 +1,119 @@
+package com.qa.opencart.api;
+
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.markuputils.MarkupHelper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.qa.opencart.utils.LatencyHistogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Result of a {@link LoadGenerator} run: latency percentiles, throughput and error rate per endpoint.
+ *
+ * @param scenario Scenario name
+ * @param model Scheduling model and its target (rate or virtual users)
+ * @param elapsedMs Wall time of the measured run, including the wait for the last requests
+ * @param endpoints Results keyed by endpoint name, in script order
+ */
+public record LoadReport(String scenario, String model, long elapsedMs, Map<String, EndpointResult> endpoints) {
+    private static final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final String REPORT_DIR = "reports/load";
+
+    /**
+     * Measurements of one endpoint
+     */
+    public record EndpointResult(String name, long requests, long errors, double errorRate,
+                                 double throughputPerSec, double p50Ms, double p95Ms, double p99Ms, double maxMs) {
+
+        /**
+         * @param windowNanos Time during which requests were sent; throughput is requests per second of it
+         */
+        static EndpointResult of(String name, long requests, long errors, LatencyHistogram latency, long windowNanos) {
+            double seconds = Math.max(1, windowNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+            return new EndpointResult(name, requests, errors,
+                requests == 0 ? 0 : (double) errors / requests,
+                requests / seconds,
+                latency.getPercentileMillis(50),
+                latency.getPercentileMillis(95),
+                latency.getPercentileMillis(99),
+                latency.getMaxMillis());
+        }
+    }
+
+    /**
+     * Fixed-width table for the console
+     */
+    public String toTable() {
+        StringBuilder table = new StringBuilder();
+        table.append("Load scenario ").append(scenario).append(" (").append(model).append(") ran ")
+             .append(elapsedMs).append(" ms\n");
+        table.append(String.format("%-24s %9s %8s %9s %10s %10s %10s %10s%n",
+            "Endpoint", "Requests", "Errors", "Req/s", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        for (EndpointResult r : endpoints.values()) {
+            table.append(String.format("%-24s %9d %7.2f%% %9.1f %10.1f %10.1f %10.1f %10.1f%n",
+                r.name(), r.requests(), r.errorRate() * 100, r.throughputPerSec(),
+                r.p50Ms(), r.p95Ms(), r.p99Ms(), r.maxMs()));
+        }
+        return table.toString();
+    }
+
+    /**
+     * Write the report as JSON to reports/load/&lt;scenario&gt;-&lt;timestamp&gt;.json
+     *
+     * @return Path of the written file
+     */
+    public Path writeJson() {
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        return writeJson(Paths.get(REPORT_DIR, scenario.replaceAll("[^A-Za-z0-9._-]", "_") + "-" + timestamp + ".json"));
+    }
+
+    /**
+     * Write the report as JSON
+     *
+     * @param file Target file; parent directories are created
+     * @return Path of the written file
+     */
+    public Path writeJson(Path file) {
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            objectMapper.writeValue(file.toFile(), this);
+            System.out.println("Load report written to: " + file.toAbsolutePath());
+            return file;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write load report " + file, e);
+        }
+    }
+
+    /**
+     * Add the results as a table to an Extent test node
+     */
+    public void attachTo(ExtentTest test) {
+        String[][] rows = new String[endpoints.size() + 1][];
+        rows[0] = new String[] {"Endpoint", "Requests", "Error rate", "Req/s", "p50 ms", "p95 ms", "p99 ms", "max ms"};
+        int i = 1;
+        for (EndpointResult r : endpoints.values()) {
+            rows[i++] = new String[] {
+                r.name(),
+                String.valueOf(r.requests()),
+                String.format("%.2f%%", r.errorRate() * 100),
+                String.format("%.1f", r.throughputPerSec()),
+                String.format("%.1f", r.p50Ms()),
+                String.format("%.1f", r.p95Ms()),
+                String.format("%.1f", r.p99Ms()),
+                String.format("%.1f", r.maxMs())
+            };
+        }
+        test.info("Load scenario " + scenario + " (" + model + ") ran " + elapsedMs + " ms");
+        test.info(MarkupHelper.createTable(rows));
+    }
+}
@@ -0,0 +1,236 @@
+package com.qa.opencart.api;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Opt-in, size-bounded LRU cache for idempotent {@link APIClient} GETs (reference data
+ * such as categories and catalogs that many tests fetch with identical results).
+ *
+ * Entries are keyed by URL, request headers and the client's cookies, so sessions never
+ * see each other's responses. A fresh entry (younger than the TTL) is served without a
+ * request; a stale entry with an ETag is revalidated with If-None-Match, and a 304 refreshes
+ * it (if the entry was evicted meanwhile, the GET is sent again without the condition).
+ * Only 200 responses without Cache-Control no-store are kept.
+ *
+ * Clients opt in with {@link APIClient#useCache(ResponseCache)}; a test that must see
+ * the live service wraps its calls in {@link #bypass()}:
+ * <pre>
+ * try (ResponseCache.Bypass live = ResponseCache.bypass()) {
+ *     client.get("catalog");
+ * }
+ * </pre>
+ */
+public class ResponseCache {
+    private static final ResponseCache shared = new ResponseCache(256, 16 * 1024 * 1024, Duration.ofMinutes(5));
+    private static final ThreadLocal<int[]> bypassDepth = ThreadLocal.withInitial(() -> new int[1]);
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bypassed = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private int maxEntries;
+    private long maxBytes;
+    private Duration ttl;
+    private long currentBytes;
+
+    private static class Entry {
+        CachedAPIResponse response;
+        long storedAtNanos;
+
+        Entry(CachedAPIResponse response) {
+            this.response = response;
+            this.storedAtNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * Switch that sends the current thread's GETs to the server until closed
+     */
+    public static class Bypass implements AutoCloseable {
+        private boolean closed;
+
+        private Bypass() {
+            bypassDepth.get()[0]++;
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                bypassDepth.get()[0]--;
+            }
+        }
+    }
+
+    /**
+     * Create a cache
+     *
+     * @param maxEntries Maximum number of responses kept
+     * @param maxBytes Maximum total body size kept
+     * @param ttl How long a response is served without revalidation
+     */
+    public ResponseCache(int maxEntries, long maxBytes, Duration ttl) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.ttl = ttl;
+    }
+
+    /**
+     * Cache shared by every client that opts in without its own instance
+     */
+    public static ResponseCache shared() {
+        return shared;
+    }
+
+    /**
+     * Apply the apiCache.* limits from config.properties to the shared cache
+     */
+    public static ResponseCache configureShared(Properties prop) {
+        synchronized (shared) {
+            shared.maxEntries = Integer.parseInt(prop.getProperty("apiCache.maxEntries", "256").trim());
+            shared.maxBytes = Long.parseLong(prop.getProperty("apiCache.maxBytes", "16777216").trim());
+            shared.ttl = Duration.ofSeconds(Long.parseLong(prop.getProperty("apiCache.ttlSeconds", "300").trim()));
+            shared.evict();
+        }
+        return shared;
+    }
+
+    /**
+     * Bypass caches on the current thread until the returned switch is closed
+     */
+    public static Bypass bypass() {
+        return new Bypass();
+    }
+
+    public static boolean isBypassed() {
+        return bypassDepth.get()[0] > 0;
+    }
+
+    static String key(String url, Map<String, String> headers, String cookies) {
+        return url + " " + new TreeMap<>(headers) + " " + cookies;
+    }
+
+    /**
+     * Look up a response
+     *
+     * @return The entry if it is still fresh, otherwise null
+     */
+    synchronized CachedAPIResponse getFresh(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null && System.nanoTime() - entry.storedAtNanos < ttl.toNanos()) {
+            hits.increment();
+            return entry.response;
+        }
+        return null;
+    }
+
+    /**
+     * ETag of a stale entry that can be revalidated, or null
+     */
+    synchronized String getETag(String key) {
+        Entry entry = entries.get(key);
+        return entry == null ? null : entry.response.headers().get("etag");
+    }
+
+    /**
+     * The server answered 304 Not Modified: restart the entry's TTL and serve it
+     */
+    synchronized CachedAPIResponse revalidated(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        revalidations.increment();
+        entry.storedAtNanos = System.nanoTime();
+        return entry.response;
+    }
+
+    /**
+     * Store a response read from the server, if it may be cached
+     */
+    synchronized void store(String key, CachedAPIResponse response) {
+        misses.increment();
+        String cacheControl = response.headers().getOrDefault("cache-control", "").toLowerCase();
+        if (response.status() != 200 || cacheControl.contains("no-store") || response.size() > maxBytes) {
+            remove(key);
+            return;
+        }
+        remove(key);
+        entries.put(key, new Entry(response));
+        currentBytes += response.size();
+        evict();
+    }
+
+    void recordBypass() {
+        bypassed.increment();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        currentBytes = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getRevalidations() {
+        return revalidations.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getBypassed() {
+        return bypassed.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Share of cacheable GETs answered from the cache (fresh hits and 304 revalidations)
+     */
+    public double getHitRatio() {
+        long served = getHits() + getRevalidations();
+        long total = served + getMisses();
+        return total == 0 ? 0 : (double) served / total;
+    }
+
+    public synchronized String summary() {
+        return String.format("API response cache: %.1f%% hit ratio (%d hits, %d revalidated, %d misses, %d bypassed), "
+                + "%d entries, %d bytes, %d evictions",
+            getHitRatio() * 100, getHits(), getRevalidations(), getMisses(), getBypassed(),
+            entries.size(), currentBytes, getEvictions());
+    }
+
+    private void remove(String key) {
+        Entry previous = entries.remove(key);
+        if (previous != null) {
+            currentBytes -= previous.response.size();
+        }
+    }
+
+    private void evict() {
+        Iterator<Entry> eldest = entries.values().iterator();
+        while ((entries.size() > maxEntries || currentBytes > maxBytes) && eldest.hasNext()) {
+            currentBytes -= eldest.next().response.size();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.qa.opencart.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microsoft.playwright.APIResponse;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.options.Cookie;
+import com.microsoft.playwright.options.SameSiteAttribute;
+import com.qa.opencart.data.User;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Sets up test preconditions (session, login, cart contents) over HTTP instead of through the UI.
+ * The fixture posts the same forms the storefront does, then copies the resulting
+ * cookies into a browser context so the UI test starts directly at the part under test.
+ *
+ * Endpoints come from config.properties (fixture.* keys) and are resolved against the url property:
+ * <pre>
+ * try (SessionFixture fixture = SessionFixture.fromConfig(prop)) {
+ *     fixture.startSession().addToCart("43", 1);
+ *     fixture.applyTo(page.context());
+ * }
+ * </pre>
+ */
+public class SessionFixture implements AutoCloseable {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final APIClient client;
+    private final Properties prop;
+
+    /**
+     * Create a fixture with its own cookie jar for the site
+     *
+     * @param baseUrl Base URL of the storefront
+     * @param prop Framework configuration holding the fixture.* endpoints
+     */
+    public SessionFixture(String baseUrl, Properties prop) {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Accept", "text/html,application/xhtml+xml,application/json");
+        this.client = new APIClient(baseUrl, headers);
+        this.prop = prop;
+    }
+
+    /**
+     * Create a fixture for the storefront configured in the url property
+     */
+    public static SessionFixture fromConfig(Properties prop) {
+        return new SessionFixture(prop.getProperty("url").trim(), prop);
+    }
+
+    /**
+     * Open an anonymous session by loading the storefront once
+     */
+    public SessionFixture startSession() {
+        expectSuccess(client.get(prop.getProperty("fixture.sessionPath", "").trim()), "start session");
+        return this;
+    }
+
+    /**
+     * Log in by posting the login form.
+     * The storefront answers a rejected login with HTTP 200 and the login form again, so the
+     * login only counts when the redirects end on the account page (fixture.loginSuccessUrl)
+     *
+     * @throws IllegalStateException If the session is not logged in afterwards
+     */
+    public SessionFixture login(String email, String password) {
+        Map<String, String> form = new LinkedHashMap<>();
+        form.put(prop.getProperty("fixture.emailParam", "email").trim(), email);
+        form.put(prop.getProperty("fixture.passwordParam", "password").trim(), password);
+        APIResponse response = client.postForm(endpoint("fixture.loginPath"), form);
+        String landedOn = response.url();
+        expectSuccess(response, "log in as " + email);
+        String successUrl = prop.getProperty("fixture.loginSuccessUrl", "route=account/account").trim();
+        if (!landedOn.contains(successUrl)) {
+            throw new IllegalStateException("API fixture failed to log in as " + email
+                + ": expected a redirect to " + successUrl + " but ended on " + landedOn);
+        }
+        return this;
+    }
+
+    /**
+     * Log in as a user from the test data
+     */
+    public SessionFixture login(User user) {
+        return login(user.email(), user.password());
+    }
+
+    /**
+     * Put a product into the session's cart.
+     * The storefront answers a rejected add (unknown product, missing required option, out of stock)
+     * with HTTP 200 and {"error": {...}}, so the add only counts when the JSON reports success
+     *
+     * @param productId Store product id
+     * @param quantity Quantity to add
+     * @throws IllegalStateException If the product is not in the cart afterwards
+     */
+    public SessionFixture addToCart(String productId, int quantity) {
+        Map<String, String> form = new LinkedHashMap<>();
+        form.put(prop.getProperty("fixture.cartProductParam", "product_id").trim(), productId);
+        form.put(prop.getProperty("fixture.cartQuantityParam", "quantity").trim(), String.valueOf(quantity));
+        String step = "add product " + productId + " to cart";
+        APIResponse response = client.postForm(endpoint("fixture.cartAddPath"), form);
+        String body = response.text();
+        expectSuccess(response, step);
+        JsonNode result;
+        try {
+            result = objectMapper.readTree(body);
+        } catch (IOException e) {
+            throw new IllegalStateException("API fixture failed to " + step + ": response is not JSON", e);
+        }
+        if (result == null || result.isMissingNode()) {
+            throw new IllegalStateException("API fixture failed to " + step + ": empty response");
+        }
+        if (result.has("error")) {
+            throw new IllegalStateException("API fixture failed to " + step + ": " + result.get("error"));
+        }
+        if (!result.has("success")) {
+            throw new IllegalStateException("API fixture failed to " + step + ": no success in response " + body);
+        }
+        return this;
+    }
+
+    /**
+     * Session state in Playwright's storage state JSON, for
+     * {@code Browser.NewContextOptions.setStorageState} when creating a new context
+     */
+    public String storageState() {
+        return client.storageState();
+    }
+
+    /**
+     * Cookies collected by the fixture
+     */
+    public List<Cookie> cookies() {
+        List<Cookie> cookies = new ArrayList<>();
+        try {
+            JsonNode state = objectMapper.readTree(storageState());
+            for (JsonNode node : state.path("cookies")) {
+                Cookie cookie = new Cookie(node.path("name").asText(), node.path("value").asText())
+                    .setDomain(node.path("domain").asText())
+                    .setPath(node.path("path").asText("/"))
+                    .setHttpOnly(node.path("httpOnly").asBoolean())
+                    .setSecure(node.path("secure").asBoolean());
+                double expires = node.path("expires").asDouble(-1);
+                if (expires > 0) {
+                    cookie.setExpires(expires);
+                }
+                String sameSite = node.path("sameSite").asText("");
+                if (!sameSite.isEmpty()) {
+                    cookie.setSameSite(SameSiteAttribute.valueOf(sameSite.toUpperCase()));
+                }
+                cookies.add(cookie);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read fixture storage state", e);
+        }
+        return cookies;
+    }
+
+    /**
+     * Share the fixture's session into an existing browser context
+     */
+    public void applyTo(BrowserContext context) {
+        List<Cookie> cookies = cookies();
+        context.addCookies(cookies);
+        System.out.println("Applied " + cookies.size() + " session cookie(s) from API fixture to browser context");
+    }
+
+    @Override
+    public void close() {
+        client.dispose();
+    }
+
+    private String endpoint(String key) {
+        String path = prop.getProperty(key);
+        if (path == null || path.trim().isEmpty()) {
+            throw new IllegalStateException("Missing fixture endpoint in config.properties: " + key);
+        }
+        return path.trim();
+    }
+
+    private void expectSuccess(APIResponse response, String step) {
+        try {
+            if (response.status() >= 400) {
+                throw new IllegalStateException("API fixture failed to " + step + ": HTTP "
+                    + response.status() + " " + response.statusText());
+            }
+        } finally {
+            response.dispose();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.qa.opencart.data;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.List;
+
+/**
+ * Typed view of login-data.json
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record LoginData(List<User> validUsers, List<User> invalidUsers) {
+    public LoginData {
+        validUsers = validUsers == null ? List.of() : List.copyOf(validUsers);
+        invalidUsers = invalidUsers == null ? List.of() : List.copyOf(invalidUsers);
+    }
+}
@@ -0,0 +1,11 @@
+package com.qa.opencart.data;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * A user entry from login-data.json.
+ * Valid users carry an expectedTitle, invalid users an expectedError.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record User(String email, String password, String expectedTitle, String expectedError) {
+}
@@ -0,0 +1,103 @@
+package com.qa.opencart.factory;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Playwright;
+
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Shared browsers for parallel data-driven rows.
+ * Launching a browser per row is expensive, so every worker thread launches one
+ * browser on first use and each row gets its own lightweight, isolated context
+ * from it. Playwright objects must stay on the thread that created them, which is
+ * why the browser is shared per worker thread rather than across threads, and why
+ * the worker closes it itself once its data set has no rows left for it
+ * ({@link #closeRowContext(BrowserContext, boolean)}).
+ */
+public class BrowserPool {
+    private static final ThreadLocal<WorkerBrowser> workerBrowser = new ThreadLocal<>();
+    private static final List<WorkerBrowser> allBrowsers = new CopyOnWriteArrayList<>();
+
+    private record WorkerBrowser(Thread owner, Playwright playwright, Browser browser) {
+        void close() {
+            try {
+                browser.close();
+                playwright.close();
+            } catch (Exception e) {
+                System.err.println("Failed to close shared row browser: " + e.getMessage());
+            }
+            allBrowsers.remove(this);
+        }
+    }
+
+    /**
+     * Create a fresh, isolated context on the current worker thread's shared browser
+     *
+     * @param prop Framework configuration
+     * @return A new browser context; close it with {@link #closeRowContext(BrowserContext, boolean)}
+     */
+    public static BrowserContext newRowContext(Properties prop) {
+        WorkerBrowser worker = workerBrowser.get();
+        if (worker == null || !worker.browser().isConnected()) {
+            Playwright playwright = Playwright.create();
+            Browser browser = PlaywrightFactory.launchBrowser(playwright, prop);
+            if (browser == null) {
+                playwright.close();
+                throw new IllegalStateException("Unsupported browser: " + prop.getProperty("browser"));
+            }
+            worker = new WorkerBrowser(Thread.currentThread(), playwright, browser);
+            workerBrowser.set(worker);
+            allBrowsers.add(worker);
+            System.out.println("Launched shared row browser on thread: " + Thread.currentThread().getName());
+        }
+
+        Browser.NewContextOptions contextOptions = new Browser.NewContextOptions()
+            .setViewportSize(null)
+            .setRecordVideoDir(Boolean.parseBoolean(prop.getProperty("recordVideo", "false")) ?
+                Paths.get("test-results/videos/rows") : null);
+        return worker.browser().newContext(contextOptions);
+    }
+
+    /**
+     * Close a row's context, and the worker thread's browser too when the thread gets no
+     * more rows (see DataDrivenListener.hasRowsToStart); must be called on the worker thread
+     *
+     * @param context Context from {@link #newRowContext(Properties)}
+     * @param lastRowOfWorker Whether the data set has no rows left that this thread could run
+     */
+    public static void closeRowContext(BrowserContext context, boolean lastRowOfWorker) {
+        context.close();
+        if (lastRowOfWorker) {
+            WorkerBrowser worker = workerBrowser.get();
+            if (worker != null) {
+                workerBrowser.remove();
+                worker.close();
+                System.out.println("Closed shared row browser on thread: " + Thread.currentThread().getName());
+            }
+        }
+    }
+
+    /**
+     * Close the browsers still open at the end of the suite. A browser is only closed from here when
+     * its worker thread has finished (it lost the race for the data set's last rows) or is this thread;
+     * a browser of a live worker is left to that worker.
+     */
+    public static void closeAll() {
+        for (WorkerBrowser worker : allBrowsers) {
+            if (worker.owner() == Thread.currentThread()) {
+                workerBrowser.remove();
+                worker.close();
+            } else if (!worker.owner().isAlive()) {
+                System.out.println("Closing shared row browser of finished thread: " + worker.owner().getName());
+                worker.close();
+            } else {
+                System.err.println("Shared row browser of thread " + worker.owner().getName()
+                    + " is still in use, leaving it to that thread");
+            }
+        }
+    }
+}
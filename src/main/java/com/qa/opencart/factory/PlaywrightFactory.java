@@ -19,13 +19,48 @@ public class PlaywrightFactory {
     private Page page;
     private Properties prop;
     private String currentVideoTimestamp;
+    private long videoStartMillis;
 
     public Page initBrowser(Properties prop) {
         String browserName = prop.getProperty("browser").trim();
         System.out.println("Browser name is : " + browserName);
         
         playwright = Playwright.create();
+        browser = launchBrowser(playwright, prop);
+
+        Browser.NewContextOptions contextOptions = new Browser.NewContextOptions()
+            .setViewportSize(null) // For maximized window
+            .setRecordVideoDir(Boolean.parseBoolean(prop.getProperty("recordVideo", "false")) ? 
+                getVideoRecordingPath() : null)
+            .setRecordHarPath(Boolean.parseBoolean(prop.getProperty("recordHar", "false")) ? 
+                Paths.get("test-results/har/trace.har") : null);
+
+        browserContext = browser.newContext(contextOptions);
         
+        // Start tracing if enabled
+        if (Boolean.parseBoolean(prop.getProperty("tracing", "false"))) {
+            browserContext.tracing().start(new Tracing.StartOptions()
+                .setScreenshots(true)
+                .setSnapshots(true));
+        }
+
+        page = browserContext.newPage();
+        // The page's recording starts with the page: offset 0 of its video
+        videoStartMillis = System.currentTimeMillis();
+        page.navigate(prop.getProperty("url").trim());
+        return page;
+    }
+
+    /**
+     * Launch the browser configured in the properties
+     *
+     * @param playwright Playwright instance owning the browser
+     * @param prop Framework configuration
+     * @return The launched browser, or null if the browser name is not supported
+     */
+    static Browser launchBrowser(Playwright playwright, Properties prop) {
+        String browserName = prop.getProperty("browser").trim();
+        Browser browser = null;
         LaunchOptions launchOptions = new LaunchOptions()
             .setHeadless(Boolean.parseBoolean(prop.getProperty("headless", "false")))
             .setSlowMo(Double.parseDouble(prop.getProperty("slowMo", "0")))
@@ -49,26 +84,7 @@ public class PlaywrightFactory {
                 System.out.println("Please pass the right browser name......");
                 break;
         }
-
-        Browser.NewContextOptions contextOptions = new Browser.NewContextOptions()
-            .setViewportSize(null) // For maximized window
-            .setRecordVideoDir(Boolean.parseBoolean(prop.getProperty("recordVideo", "false")) ? 
-                getVideoRecordingPath() : null)
-            .setRecordHarPath(Boolean.parseBoolean(prop.getProperty("recordHar", "false")) ? 
-                Paths.get("test-results/har/trace.har") : null);
-
-        browserContext = browser.newContext(contextOptions);
-        
-        // Start tracing if enabled
-        if (Boolean.parseBoolean(prop.getProperty("tracing", "false"))) {
-            browserContext.tracing().start(new Tracing.StartOptions()
-                .setScreenshots(true)
-                .setSnapshots(true));
-        }
-
-        page = browserContext.newPage();
-        page.navigate(prop.getProperty("url").trim());
-        return page;
+        return browser;
     }
 
     /**
@@ -88,6 +104,14 @@ public class PlaywrightFactory {
         return Paths.get(videoDir);
     }
     
+    /**
+     * Wall-clock time at which the page's video recording started, to map a test's
+     * start and end to offsets in the class video
+     */
+    public long getVideoStartMillis() {
+        return videoStartMillis;
+    }
+    
     /**
      * Gets the expected video file path for a specific test
      * This can be used to link videos to specific test reports
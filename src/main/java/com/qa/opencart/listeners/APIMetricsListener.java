@@ -0,0 +1,110 @@
+package com.qa.opencart.listeners;
+
+import com.qa.opencart.api.APIMetrics;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestResult;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Prints the per-endpoint API latency table at suite end and enforces p95 latency budgets.
+ *
+ * Budgets come from apiP95BudgetsMs in config.properties as comma separated
+ * "METHOD /templated/path:millis" entries, e.g.
+ * {@code GET /opencart/index.php?route=product/search:1500}. After each test, every
+ * budgeted endpoint the test called (itself or through AsyncAPIClient and LoadGenerator
+ * lanes) is checked against its suite-wide p95; a
+ * passing test fails when the p95 is over budget. Endpoints with fewer than
+ * apiBudgetMinSamples calls are not checked yet, so one slow call does not fail a build.
+ */
+public class APIMetricsListener implements ISuiteListener, IInvokedMethodListener {
+    private static final String CONFIG_PATH = "./src/test/resources/config/config.properties";
+
+    private final Map<String, Double> budgets = new LinkedHashMap<>();
+    private int minSamples = 20;
+
+    @Override
+    public void onStart(ISuite suite) {
+        Properties prop = readConfig();
+        String configured = prop.getProperty("apiP95BudgetsMs", "").trim();
+        for (String entry : configured.split(",")) {
+            int separator = entry.lastIndexOf(':');
+            if (separator <= 0) {
+                continue;
+            }
+            try {
+                budgets.put(entry.substring(0, separator).trim(), Double.parseDouble(entry.substring(separator + 1).trim()));
+            } catch (NumberFormatException e) {
+                System.err.println("Ignoring API budget with invalid value: " + entry.trim());
+            }
+        }
+        String configuredMinSamples = prop.getProperty("apiBudgetMinSamples", "").trim();
+        if (!configuredMinSamples.isEmpty()) {
+            try {
+                minSamples = Integer.parseInt(configuredMinSamples);
+            } catch (NumberFormatException e) {
+                System.err.println("Ignoring invalid apiBudgetMinSamples, using " + minSamples + ": " + configuredMinSamples);
+            }
+        }
+        if (!budgets.isEmpty()) {
+            System.out.println("*** API p95 budgets: " + budgets + " ***");
+        }
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        if (!APIMetrics.snapshot().isEmpty()) {
+            System.out.println("*** API latency per endpoint ***");
+            System.out.println(APIMetrics.toTable());
+        }
+    }
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (method.isTestMethod()) {
+            APIMetrics.clearTouched();
+        }
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (!method.isTestMethod() || budgets.isEmpty() || testResult.getStatus() != ITestResult.SUCCESS) {
+            return;
+        }
+        List<String> violations = new ArrayList<>();
+        for (String key : APIMetrics.touched()) {
+            Double budget = budgets.get(key);
+            APIMetrics.EndpointMetrics metrics = APIMetrics.get(key);
+            if (budget == null || metrics == null || metrics.getLatency().getCount() < minSamples) {
+                continue;
+            }
+            double p95 = metrics.getLatency().getPercentileMillis(95);
+            if (p95 > budget) {
+                violations.add(String.format("%s p95 %.1f ms exceeds budget %.0f ms", key, p95, budget));
+            }
+        }
+        if (!violations.isEmpty()) {
+            testResult.setStatus(ITestResult.FAILURE);
+            testResult.setThrowable(new AssertionError("API latency budget exceeded: " + String.join("; ", violations)));
+        }
+    }
+
+    private Properties readConfig() {
+        Properties prop = new Properties();
+        try (FileInputStream ip = new FileInputStream(CONFIG_PATH)) {
+            prop.load(ip);
+        } catch (IOException e) {
+            System.err.println("Could not read API budgets: " + e.getMessage());
+        }
+        return prop;
+    }
+}
@@ -0,0 +1,211 @@
+package com.qa.opencart.listeners;
+
+import org.testng.IDataProviderInterceptor;
+import org.testng.IDataProviderMethod;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs parallel data providers at the configured concurrency and rolls their
+ * row results up per data set (one data set = one data-driven test method).
+ *
+ * The concurrency comes from dataProviderThreadCount in config.properties,
+ * overridable with -DdataProviderThreadCount.
+ *
+ * It also counts the rows of every data set that no worker has started yet, so a worker
+ * can tell when it gets no more rows and close its shared row browser on its own thread.
+ */
+public class DataDrivenListener implements ISuiteListener, ITestListener, IDataProviderInterceptor {
+    private static final String CONFIG_PATH = "./src/test/resources/config/config.properties";
+    private static final String ROW_STARTED = DataDrivenListener.class.getName() + ".rowStarted";
+
+    private static final Map<String, DataSetSummary> summaries = new ConcurrentHashMap<>();
+    private static final Map<String, AtomicInteger> rowsToStart = new ConcurrentHashMap<>();
+
+    /**
+     * Results of all rows of one data-driven test method
+     */
+    public static class DataSetSummary {
+        private final String name;
+        private int passed;
+        private int failed;
+        private int skipped;
+        private long firstStart = Long.MAX_VALUE;
+        private long lastEnd;
+        private long totalRowMs;
+
+        DataSetSummary(String name) {
+            this.name = name;
+        }
+
+        synchronized void add(ITestResult result) {
+            switch (result.getStatus()) {
+                case ITestResult.SUCCESS:
+                    passed++;
+                    break;
+                case ITestResult.FAILURE:
+                    failed++;
+                    break;
+                default:
+                    skipped++;
+                    break;
+            }
+            firstStart = Math.min(firstStart, result.getStartMillis());
+            lastEnd = Math.max(lastEnd, result.getEndMillis());
+            totalRowMs += result.getEndMillis() - result.getStartMillis();
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public synchronized int getRows() {
+            return passed + failed + skipped;
+        }
+
+        public synchronized int getPassed() {
+            return passed;
+        }
+
+        public synchronized int getFailed() {
+            return failed;
+        }
+
+        public synchronized int getSkipped() {
+            return skipped;
+        }
+
+        /** Elapsed time from the first row start to the last row end */
+        public synchronized long getWallMs() {
+            return getRows() == 0 ? 0 : lastEnd - firstStart;
+        }
+
+        /** Sum of the individual row durations (what a sequential run would take) */
+        public synchronized long getTotalRowMs() {
+            return totalRowMs;
+        }
+
+        @Override
+        public synchronized String toString() {
+            return name + ": " + getRows() + " rows, " + passed + " passed, " + failed + " failed, "
+                + skipped + " skipped in " + getWallMs() + " ms (" + totalRowMs + " ms of row time)";
+        }
+    }
+
+    @Override
+    public void onStart(ISuite suite) {
+        int threadCount = Integer.getInteger("dataProviderThreadCount", readConfiguredThreadCount());
+        if (threadCount > 0) {
+            suite.getXmlSuite().setDataProviderThreadCount(threadCount);
+            System.out.println("*** Parallel data provider thread count: " + threadCount + " ***");
+        }
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        for (DataSetSummary summary : getSummaries()) {
+            System.out.println("*** Data set " + summary + " ***");
+        }
+    }
+
+    /**
+     * Read the rows up front (TestNG does so before dispatching them anyway) to count them
+     */
+    @Override
+    public Iterator<Object[]> intercept(Iterator<Object[]> original, IDataProviderMethod dataProviderMethod,
+                                        ITestNGMethod method, ITestContext context) {
+        List<Object[]> rows = new ArrayList<>();
+        original.forEachRemaining(rows::add);
+        String name = method.getRealClass().getSimpleName() + "." + method.getMethodName();
+        rowsToStart.computeIfAbsent(name, key -> new AtomicInteger()).addAndGet(rows.size());
+        return rows.iterator();
+    }
+
+    @Override
+    public void onTestStart(ITestResult result) {
+        rowStarted(result);
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        record(result);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        record(result);
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        record(result);
+    }
+
+    /**
+     * Whether rows of the result's data set are still waiting for a worker.
+     * False for the last row a worker runs: after it, the worker gets no more rows of the set.
+     */
+    public static boolean hasRowsToStart(ITestResult result) {
+        AtomicInteger left = rowsToStart.get(dataSetName(result));
+        return left != null && left.get() > 0;
+    }
+
+    /**
+     * Roll-up of every data set seen so far in this JVM
+     */
+    public static List<DataSetSummary> getSummaries() {
+        return new ArrayList<>(summaries.values());
+    }
+
+    private void record(ITestResult result) {
+        if (!isRow(result)) {
+            return;
+        }
+        // Rows skipped by a failed configuration method never reach onTestStart
+        rowStarted(result);
+        summaries.computeIfAbsent(dataSetName(result), DataSetSummary::new).add(result);
+    }
+
+    private void rowStarted(ITestResult result) {
+        if (isRow(result) && result.getAttribute(ROW_STARTED) == null) {
+            result.setAttribute(ROW_STARTED, Boolean.TRUE);
+            AtomicInteger left = rowsToStart.get(dataSetName(result));
+            if (left != null) {
+                left.decrementAndGet();
+            }
+        }
+    }
+
+    private static boolean isRow(ITestResult result) {
+        return result.getParameters() != null && result.getParameters().length > 0;
+    }
+
+    private static String dataSetName(ITestResult result) {
+        return result.getTestClass().getRealClass().getSimpleName() + "." + result.getMethod().getMethodName();
+    }
+
+    private int readConfiguredThreadCount() {
+        try (FileInputStream ip = new FileInputStream(CONFIG_PATH)) {
+            Properties prop = new Properties();
+            prop.load(ip);
+            return Integer.parseInt(prop.getProperty("dataProviderThreadCount", "0").trim());
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("Could not read dataProviderThreadCount: " + e.getMessage());
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.qa.opencart.listeners;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.markuputils.MarkupHelper;
+import com.aventstack.extentreports.reporter.ExtentSparkReporter;
+import com.qa.opencart.api.APIMetrics;
+import com.qa.opencart.api.ResponseCache;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+
+import java.io.File;
+
+/**
+ * Owns the suite's Extent report: creates it when the suite starts and flushes it, with the
+ * suite-wide roll-ups (data sets, API cache, API latency), when the suite ends. Browser and
+ * API-only test bases both declare it, so a run of only API tests gets its report as well.
+ * Suite teardown ({@code @AfterSuite}) runs before {@link #onFinish(ISuite)}, so tests can
+ * still add to the report there.
+ */
+public class SuiteReportListener implements ISuiteListener {
+    public static final String REPORT_PATH = "./reports/TestExecutionReport.html";
+    public static final String SCREENSHOTS_DIR = "./reports/screenshots/";
+
+    private static volatile ExtentReports extent;
+
+    /**
+     * The suite's report, or null if it could not be created
+     */
+    public static ExtentReports getExtent() {
+        return extent;
+    }
+
+    @Override
+    public void onStart(ISuite suite) {
+        if (extent != null) {
+            return;
+        }
+        try {
+            // Create reports directory if it doesn't exist
+            File reportsDir = new File("./reports");
+            if (!reportsDir.exists()) {
+                reportsDir.mkdirs();
+                System.out.println("Created reports directory: " + reportsDir.getAbsolutePath());
+            }
+
+            // Create screenshots directory if it doesn't exist
+            File screenshotsDir = new File(SCREENSHOTS_DIR);
+            if (!screenshotsDir.exists()) {
+                screenshotsDir.mkdirs();
+                System.out.println("Created screenshots directory: " + screenshotsDir.getAbsolutePath());
+            }
+
+            // Use absolute path for the report
+            String absoluteReportPath = new File(REPORT_PATH).getAbsolutePath();
+
+            ExtentSparkReporter htmlReporter = new ExtentSparkReporter(absoluteReportPath);
+            htmlReporter.config().setDocumentTitle("OpenCart Test Report");
+            htmlReporter.config().setReportName("Test Results");
+
+            // Configure to enable viewing of base64 images
+            htmlReporter.config().setEncoding("utf-8");
+            htmlReporter.config().setJs("document.getElementsByClassName('logo')[0].style.display='none';");
+            htmlReporter.config().setCss(".report-name { padding-left: 0px; } .report-name > img { float: left;height: 90%;margin-left: 30px;margin-top: 2px;width: auto; }");
+
+            ExtentReports report = new ExtentReports();
+            report.attachReporter(htmlReporter);
+            report.setSystemInfo("Automation Tester", "QA Team");
+            report.setSystemInfo("Organization", "OpenCart");
+            report.setSystemInfo("Build No", "1.0");
+            report.setSystemInfo("Report Path", absoluteReportPath);
+            report.setSystemInfo("Screenshots Path", screenshotsDir.getAbsolutePath());
+            extent = report;
+
+            System.out.println("Extent Report initialized at: " + absoluteReportPath);
+        } catch (Exception e) {
+            System.err.println("Failed to initialize Extent Report: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        ExtentReports report = extent;
+        if (report == null) {
+            return;
+        }
+
+        // Roll up the rows of each data-driven test into one summary
+        for (DataDrivenListener.DataSetSummary summary : DataDrivenListener.getSummaries()) {
+            report.createTest("Data set: " + summary.getName(), "Roll-up of all data rows")
+                  .info(summary.toString());
+        }
+
+        ResponseCache apiCache = ResponseCache.shared();
+        if (apiCache.getHits() + apiCache.getRevalidations() + apiCache.getMisses() + apiCache.getBypassed() > 0) {
+            report.createTest("API response cache", "Shared GET cache effectiveness")
+                  .info(apiCache.summary());
+        }
+
+        // Latency of every API call made during the suite, per endpoint
+        if (!APIMetrics.snapshot().isEmpty()) {
+            report.createTest("API latency", "Per-endpoint latency of all APIClient calls")
+                  .info(MarkupHelper.createTable(APIMetrics.toRows()));
+        }
+
+        report.flush();
+        extent = null;
+        System.out.println("Extent Report flushed to: " + REPORT_PATH);
+        System.out.println("Please check the report at: " + new File(REPORT_PATH).getAbsolutePath());
+    }
+}
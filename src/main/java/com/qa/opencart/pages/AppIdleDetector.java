@@ -0,0 +1,221 @@
+package com.qa.opencart.pages;
+
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Request;
+import com.microsoft.playwright.options.WaitUntilState;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * "App idle" wait scoped to first-party traffic.
+ * {@code LoadState.NETWORKIDLE} waits for every request on the page, so analytics
+ * and beacon traffic from third parties keeps it from ever settling. This detector
+ * only tracks in-flight requests whose host matches one of the configured
+ * first-party patterns and resolves once none are pending for a quiet window.
+ *
+ * Configured through config.properties:
+ * firstPartyHosts (comma separated, "example.com" also matches its subdomains),
+ * appIdleQuietMs and appIdleTimeout.
+ */
+public class AppIdleDetector {
+    private static final long POLL_INTERVAL_MS = 25;
+
+    private final Page page;
+    private final List<String> hostPatterns;
+    private final long quietWindowMs;
+    private final double defaultTimeoutMs;
+
+    private final Set<Request> inFlight = ConcurrentHashMap.newKeySet();
+    private volatile long lastActivity = System.currentTimeMillis();
+    private volatile int thirdPartyRequests;
+
+    private final Consumer<Request> onRequest = this::requestStarted;
+    private final Consumer<Request> onRequestDone = this::requestDone;
+
+    /**
+     * Timing of a single navigation
+     *
+     * @param url URL navigated to
+     * @param navigationMs Time until the DOM content was loaded
+     * @param appIdleMs Additional time until first-party traffic went quiet
+     * @param idle Whether first-party traffic went quiet before the timeout
+     * @param pendingRequests First-party requests still in flight when the wait ended
+     * @param thirdPartyRequests Third-party requests ignored during the navigation
+     */
+    public record NavigationTiming(String url, long navigationMs, long appIdleMs, boolean idle,
+                                   int pendingRequests, int thirdPartyRequests) {
+        public long totalMs() {
+            return navigationMs + appIdleMs;
+        }
+
+        @Override
+        public String toString() {
+            return "Navigation to " + url + ": DOM ready in " + navigationMs + " ms, app idle after "
+                + appIdleMs + " ms more (total " + totalMs() + " ms"
+                + (idle ? "" : ", timed out with " + pendingRequests + " first-party request(s) pending")
+                + ", " + thirdPartyRequests + " third-party request(s) ignored)";
+        }
+    }
+
+    /**
+     * Create a detector and start tracking requests on the page
+     *
+     * @param page Page to track
+     * @param hostPatterns First-party host patterns
+     * @param quietWindowMs How long first-party traffic must stay at zero
+     * @param defaultTimeoutMs Timeout used when none is given
+     */
+    public AppIdleDetector(Page page, List<String> hostPatterns, long quietWindowMs, double defaultTimeoutMs) {
+        this.page = page;
+        this.hostPatterns = new ArrayList<>();
+        for (String pattern : hostPatterns) {
+            String normalized = pattern.trim().toLowerCase();
+            if (normalized.startsWith("*.")) {
+                normalized = normalized.substring(2);
+            }
+            if (!normalized.isEmpty()) {
+                this.hostPatterns.add(normalized);
+            }
+        }
+        this.quietWindowMs = quietWindowMs;
+        this.defaultTimeoutMs = defaultTimeoutMs;
+        page.onRequest(onRequest);
+        page.onRequestFinished(onRequestDone);
+        page.onRequestFailed(onRequestDone);
+    }
+
+    /**
+     * Create a detector from the firstPartyHosts, appIdleQuietMs and appIdleTimeout properties
+     *
+     * @param page Page to track
+     * @param prop Framework configuration
+     * @return A detector attached to the page
+     */
+    public static AppIdleDetector fromConfig(Page page, Properties prop) {
+        List<String> hosts = List.of(prop.getProperty("firstPartyHosts", "").split(","));
+        long quietWindowMs = Long.parseLong(prop.getProperty("appIdleQuietMs", "500").trim());
+        double timeoutMs = Double.parseDouble(prop.getProperty("appIdleTimeout", "5000").trim());
+        return new AppIdleDetector(page, hosts, quietWindowMs, timeoutMs);
+    }
+
+    /**
+     * Whether a URL belongs to the application under test.
+     * With no patterns configured every request counts as first-party.
+     */
+    public boolean isFirstParty(String url) {
+        if (hostPatterns.isEmpty()) {
+            return true;
+        }
+        String host;
+        try {
+            host = URI.create(url).getHost();
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        if (host == null) {
+            return false;
+        }
+        host = host.toLowerCase();
+        for (String pattern : hostPatterns) {
+            if (host.equals(pattern) || host.endsWith("." + pattern)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Navigate and wait for DOM content plus first-party idle
+     *
+     * @param url URL to open
+     * @param navigationTimeoutMs Timeout for the navigation itself
+     * @return Timing of the navigation
+     */
+    public NavigationTiming navigate(String url, double navigationTimeoutMs) {
+        thirdPartyRequests = 0;
+        long start = System.currentTimeMillis();
+        // DOMContentLoaded rather than load: images and other subresources count as app idle time
+        page.navigate(url, new Page.NavigateOptions()
+            .setWaitUntil(WaitUntilState.DOMCONTENTLOADED)
+            .setTimeout(navigationTimeoutMs));
+        long navigationMs = System.currentTimeMillis() - start;
+
+        long idleStart = System.currentTimeMillis();
+        boolean idle = waitForAppIdle(defaultTimeoutMs);
+        long appIdleMs = System.currentTimeMillis() - idleStart;
+
+        NavigationTiming timing = new NavigationTiming(url, navigationMs, appIdleMs, idle,
+            inFlight.size(), thirdPartyRequests);
+        System.out.println(timing);
+        return timing;
+    }
+
+    /**
+     * Wait with the configured timeout until no first-party request has been in flight for the quiet window
+     *
+     * @return true if the app went idle before the timeout
+     */
+    public boolean waitForAppIdle() {
+        return waitForAppIdle(defaultTimeoutMs);
+    }
+
+    /**
+     * Wait until no first-party request has been in flight for the quiet window
+     *
+     * @param timeoutMs Maximum time to wait
+     * @return true if the app went idle before the timeout
+     */
+    public boolean waitForAppIdle(double timeoutMs) {
+        long deadline = System.currentTimeMillis() + (long) timeoutMs;
+        while (true) {
+            long now = System.currentTimeMillis();
+            if (inFlight.isEmpty() && now - lastActivity >= quietWindowMs) {
+                return true;
+            }
+            if (now >= deadline) {
+                System.out.println("App idle timeout: " + inFlight.size() + " first-party request(s) still in flight");
+                return false;
+            }
+            // waitForTimeout keeps dispatching the page's request events while we wait
+            page.waitForTimeout(Math.min(POLL_INTERVAL_MS, deadline - now));
+        }
+    }
+
+    /**
+     * Number of first-party requests currently in flight
+     */
+    public int getPendingRequests() {
+        return inFlight.size();
+    }
+
+    /**
+     * Stop tracking requests on the page
+     */
+    public void detach() {
+        page.offRequest(onRequest);
+        page.offRequestFinished(onRequestDone);
+        page.offRequestFailed(onRequestDone);
+        inFlight.clear();
+    }
+
+    private void requestStarted(Request request) {
+        if (isFirstParty(request.url())) {
+            inFlight.add(request);
+            lastActivity = System.currentTimeMillis();
+        } else {
+            thirdPartyRequests++;
+        }
+    }
+
+    private void requestDone(Request request) {
+        if (inFlight.remove(request)) {
+            lastActivity = System.currentTimeMillis();
+        }
+    }
+}
@@ -2,9 +2,14 @@ package com.qa.opencart.pages;
 
 import com.microsoft.playwright.Locator;
 import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Response;
+import com.microsoft.playwright.TimeoutError;
 import com.microsoft.playwright.options.WaitForSelectorState;
+import com.qa.opencart.utils.WaitStatistics;
 
 import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.function.Predicate;
 
 public class BasePage {
     protected Page page;
@@ -25,6 +30,169 @@ public class BasePage {
         element.waitFor(new Locator.WaitForOptions().setState(WaitForSelectorState.VISIBLE));
     }
 
+    // Event-driven Wait Methods
+    // Each wait resolves as soon as its condition holds; its timeout is the fixed sleep it replaces,
+    // so the worst case is never slower than the old waitForTimeout call.
+
+    private static final String DOM_QUIET_SCRIPT =
+        "([quietMs, timeoutMs]) => new Promise(resolve => {\n" +
+        "  let quietTimer;\n" +
+        "  const observer = new MutationObserver(() => {\n" +
+        "    clearTimeout(quietTimer);\n" +
+        "    quietTimer = setTimeout(() => done(true), quietMs);\n" +
+        "  });\n" +
+        "  const capTimer = setTimeout(() => done(false), timeoutMs);\n" +
+        "  const done = quiet => { observer.disconnect(); clearTimeout(quietTimer); clearTimeout(capTimer); resolve(quiet); };\n" +
+        "  observer.observe(document, { subtree: true, childList: true, attributes: true, characterData: true });\n" +
+        "  quietTimer = setTimeout(() => done(true), quietMs);\n" +
+        "})";
+
+    // Animations triggered by the action that preceded the wait may start a frame or two later
+    private static final long ANIMATION_START_GRACE_MS = 150;
+
+    private static final String ANIMATIONS_FINISHED_SCRIPT =
+        "([selector, timeoutMs, startGraceMs]) => new Promise(resolve => {\n" +
+        "  const capTimer = setTimeout(() => resolve(false), timeoutMs);\n" +
+        "  const done = finished => { clearTimeout(capTimer); resolve(finished); };\n" +
+        "  const graceEnd = performance.now() + startGraceMs;\n" +
+        "  const running = () => {\n" +
+        "    const root = selector ? document.querySelector(selector) : null;\n" +
+        "    if (selector && !root) return [];\n" +
+        "    return (root ? root.getAnimations({ subtree: true }) : document.getAnimations())\n" +
+        "      .filter(a => a.playState === 'running' && isFinite(a.effect.getComputedTiming().endTime));\n" +
+        "  };\n" +
+        "  const poll = () => {\n" +
+        "    const animations = running();\n" +
+        "    if (animations.length > 0) {\n" +
+        "      Promise.all(animations.map(a => a.finished.catch(() => null))).then(() => done(true));\n" +
+        "    } else if (performance.now() >= graceEnd) {\n" +
+        "      done(true);\n" +
+        "    } else {\n" +
+        "      requestAnimationFrame(poll);\n" +
+        "    }\n" +
+        "  };\n" +
+        "  poll();\n" +
+        "})";
+
+    private static final String CART_COUNT_CHANGED_SCRIPT =
+        "([selector, previous]) => {\n" +
+        "  const el = document.querySelector(selector);\n" +
+        "  return !!el && el.textContent.trim() !== (previous || '');\n" +
+        "}";
+
+    /**
+     * Run an action and wait for the first response whose URL matches the predicate.
+     * Only the wait itself may time out quietly; a failing action (including its own timeout) is rethrown.
+     *
+     * @param urlPredicate Predicate on the response URL
+     * @param action Action that triggers the request
+     * @param timeoutMs Maximum time to wait (the fixed sleep this replaces)
+     * @return The matching response, or null if none arrived in time
+     */
+    public Response waitForResponse(Predicate<String> urlPredicate, Runnable action, double timeoutMs) {
+        long start = System.currentTimeMillis();
+        RuntimeException[] actionError = new RuntimeException[1];
+        Response response = null;
+        try {
+            response = page.waitForResponse(r -> urlPredicate.test(r.url()),
+                new Page.WaitForResponseOptions().setTimeout(timeoutMs), () -> {
+                    try {
+                        action.run();
+                    } catch (RuntimeException e) {
+                        actionError[0] = e;
+                        throw e;
+                    }
+                });
+        } catch (TimeoutError e) {
+            if (actionError[0] != null) {
+                throw actionError[0];
+            }
+            System.out.println("No matching response within " + (long) timeoutMs + " ms");
+        }
+        recordWait(timeoutMs, start, response != null);
+        return response;
+    }
+
+    /**
+     * Wait until the DOM has seen no mutations for a quiet window
+     *
+     * @param quietWindowMs How long the DOM must stay unchanged
+     * @param timeoutMs Maximum time to wait (the fixed sleep this replaces)
+     * @return true if the DOM went quiet before the timeout
+     */
+    public boolean waitForDomQuiet(long quietWindowMs, double timeoutMs) {
+        long start = System.currentTimeMillis();
+        boolean quiet = evaluateCondition(DOM_QUIET_SCRIPT, Arrays.asList(quietWindowMs, timeoutMs));
+        recordWait(timeoutMs, start, quiet);
+        return quiet;
+    }
+
+    /**
+     * Wait until running (finite) CSS/Web animations have finished.
+     * Called right after the action that triggers them, so when nothing is animating yet it
+     * first waits up to ANIMATION_START_GRACE_MS for an animation to start; an animation
+     * that starts later than that is not waited for.
+     *
+     * @param selector Element whose subtree is checked, or null for the whole document
+     * @param timeoutMs Maximum time to wait (the fixed sleep this replaces)
+     * @return true if the animations finished before the timeout
+     */
+    public boolean waitForAnimationsToFinish(String selector, double timeoutMs) {
+        long start = System.currentTimeMillis();
+        boolean finished = evaluateCondition(ANIMATIONS_FINISHED_SCRIPT,
+            Arrays.asList(selector, timeoutMs, ANIMATION_START_GRACE_MS));
+        recordWait(timeoutMs, start, finished);
+        return finished;
+    }
+
+    /**
+     * Read the current cart count text
+     *
+     * @param selector CSS selector of the cart count indicator
+     * @return Trimmed text of the indicator, or empty string if it is not on the page
+     */
+    public String readCartCount(String selector) {
+        Object count = page.evaluate("selector => { const el = document.querySelector(selector); "
+            + "return el ? el.textContent.trim() : ''; }", selector);
+        return count == null ? "" : count.toString();
+    }
+
+    /**
+     * Wait until the cart count indicator shows a different value
+     *
+     * @param selector CSS selector of the cart count indicator
+     * @param previousCount Value read with {@link #readCartCount(String)} before the cart operation
+     * @param timeoutMs Maximum time to wait (the fixed sleep this replaces)
+     * @return true if the count changed before the timeout
+     */
+    public boolean waitForCartCountChange(String selector, String previousCount, double timeoutMs) {
+        long start = System.currentTimeMillis();
+        boolean changed = true;
+        try {
+            page.waitForFunction(CART_COUNT_CHANGED_SCRIPT, Arrays.asList(selector, previousCount),
+                new Page.WaitForFunctionOptions().setTimeout(timeoutMs));
+        } catch (Exception e) {
+            System.out.println("Cart count did not change within " + (long) timeoutMs + " ms: " + e.getMessage());
+            changed = false;
+        }
+        recordWait(timeoutMs, start, changed);
+        return changed;
+    }
+
+    private boolean evaluateCondition(String script, Object arg) {
+        try {
+            return Boolean.TRUE.equals(page.evaluate(script, arg));
+        } catch (Exception e) {
+            // A navigation destroys the execution context - the page changed, so stop waiting
+            System.out.println("Wait condition interrupted: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void recordWait(double timeoutMs, long start, boolean conditionMet) {
+        WaitStatistics.current().record((long) timeoutMs, System.currentTimeMillis() - start, conditionMet);
+    }
+
     // Action Methods
     protected void click(String selector) {
         waitForElementClickable(selector);
@@ -0,0 +1,140 @@
+package com.qa.opencart.pages;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microsoft.playwright.Page;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads several fields from the page in a single browser round trip.
+ * Page objects declare the fields they need (text, count, attribute...) and
+ * {@link #extract()} fetches all of them with one {@code page.evaluate} call,
+ * instead of one {@code textContent}/{@code count} call per field.
+ *
+ * Selectors are evaluated with {@code document.querySelector}, so they must be
+ * plain CSS selectors (Playwright-only engines such as {@code :has-text} are not supported).
+ */
+public class DomExtractor {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final String EXTRACT_SCRIPT =
+        "specs => {\n" +
+        "  const result = {};\n" +
+        "  for (const spec of specs) {\n" +
+        "    const first = () => spec.selector ? document.querySelector(spec.selector) : null;\n" +
+        "    const all = () => spec.selector ? Array.from(document.querySelectorAll(spec.selector)) : [];\n" +
+        "    const text = el => el ? el.textContent.trim() : null;\n" +
+        "    switch (spec.kind) {\n" +
+        "      case 'title': result[spec.field] = document.title; break;\n" +
+        "      case 'url': result[spec.field] = location.href; break;\n" +
+        "      case 'text': result[spec.field] = text(first()); break;\n" +
+        "      case 'texts': result[spec.field] = all().map(text); break;\n" +
+        "      case 'count': result[spec.field] = all().length; break;\n" +
+        "      case 'visible': { const el = first(); result[spec.field] = !!el && el.getClientRects().length > 0; break; }\n" +
+        "      case 'attribute': { const el = first(); result[spec.field] = el ? el.getAttribute(spec.attribute) : null; break; }\n" +
+        "      case 'attributes': result[spec.field] = all().map(el => el.getAttribute(spec.attribute)); break;\n" +
+        "    }\n" +
+        "  }\n" +
+        "  return result;\n" +
+        "}";
+
+    private final Page page;
+    private final List<Map<String, String>> specs = new ArrayList<>();
+
+    private DomExtractor(Page page) {
+        this.page = page;
+    }
+
+    /**
+     * Start a new extraction against the given page
+     *
+     * @param page Page to read from
+     * @return A new extractor with no fields declared
+     */
+    public static DomExtractor on(Page page) {
+        return new DomExtractor(page);
+    }
+
+    /** Document title */
+    public DomExtractor title(String field) {
+        return add(field, "title", null, null);
+    }
+
+    /** Current page URL */
+    public DomExtractor url(String field) {
+        return add(field, "url", null, null);
+    }
+
+    /** Trimmed text content of the first element matching the selector (null if none) */
+    public DomExtractor text(String field, String selector) {
+        return add(field, "text", selector, null);
+    }
+
+    /** Trimmed text content of every element matching the selector */
+    public DomExtractor texts(String field, String selector) {
+        return add(field, "texts", selector, null);
+    }
+
+    /** Number of elements matching the selector */
+    public DomExtractor count(String field, String selector) {
+        return add(field, "count", selector, null);
+    }
+
+    /** Whether the first element matching the selector is rendered */
+    public DomExtractor visible(String field, String selector) {
+        return add(field, "visible", selector, null);
+    }
+
+    /** Attribute value of the first element matching the selector (null if none) */
+    public DomExtractor attribute(String field, String selector, String attribute) {
+        return add(field, "attribute", selector, attribute);
+    }
+
+    /** Attribute value of every element matching the selector */
+    public DomExtractor attributes(String field, String selector, String attribute) {
+        return add(field, "attributes", selector, attribute);
+    }
+
+    /**
+     * Fetch every declared field in one {@code evaluate} call
+     *
+     * @return Field name to value, in declaration order
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> extract() {
+        Object result = page.evaluate(EXTRACT_SCRIPT, specs);
+        Map<String, Object> values = new LinkedHashMap<>();
+        if (result instanceof Map) {
+            Map<String, Object> raw = (Map<String, Object>) result;
+            for (Map<String, String> spec : specs) {
+                values.put(spec.get("field"), raw.get(spec.get("field")));
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Fetch every declared field in one {@code evaluate} call and bind the result
+     * to a typed object (typically a record whose components match the field names)
+     *
+     * @param type Target type
+     * @return The bound snapshot
+     */
+    public <T> T extract(Class<T> type) {
+        return objectMapper.convertValue(extract(), type);
+    }
+
+    private DomExtractor add(String field, String kind, String selector, String attribute) {
+        Map<String, String> spec = new HashMap<>();
+        spec.put("field", field);
+        spec.put("kind", kind);
+        spec.put("selector", selector);
+        spec.put("attribute", attribute);
+        specs.add(spec);
+        return this;
+    }
+}
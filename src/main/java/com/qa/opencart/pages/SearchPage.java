@@ -2,12 +2,16 @@ package com.qa.opencart.pages;
 
 import com.microsoft.playwright.Page;
 
+import java.util.List;
+
 public class SearchPage {
     private Page page;
 
     // 1. String Locators - OR
     private String searchResults = "div.product-layout";
     private String searchPageHeader = "div#content h1";
+    private String productNames = "div.product-layout h4 a";
+    private String productPrices = "div.product-layout p.price";
 
     // 2. page constructor:
     public SearchPage(Page page) {
@@ -26,4 +30,21 @@ public class SearchPage {
     public String getSearchPageHeader() {
         return page.textContent(searchPageHeader);
     }
-} 
\ No newline at end of file
+
+    public Snapshot getSearchResultsSnapshot() {
+        return DomExtractor.on(page)
+            .title("title")
+            .text("header", searchPageHeader)
+            .count("resultsCount", searchResults)
+            .texts("productNames", productNames)
+            .texts("productPrices", productPrices)
+            .extract(Snapshot.class);
+    }
+
+    /**
+     * Everything the search assertions read from the results page, fetched in one round trip
+     */
+    public record Snapshot(String title, String header, int resultsCount,
+                           List<String> productNames, List<String> productPrices) {
+    }
+}
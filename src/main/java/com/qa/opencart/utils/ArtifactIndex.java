@@ -0,0 +1,337 @@
+package com.qa.opencart.utils;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Index of test artifacts (screenshots, videos, traces) under the report directories,
+ * kept current by a directory watcher so queries never walk the file system.
+ *
+ * File names are parsed the way the framework writes them:
+ * <ul>
+ *   <li>{@code <test>[_failure|_success]_<millis>.png} for screenshots</li>
+ *   <li>{@code <test>_<millis>.webm} for published videos</li>
+ *   <li>{@code thumbnails/<test>_<millis>.jpg} for thumbnail strips</li>
+ *   <li>{@code <yyyy-MM-dd_HH-mm-ss>/<page>.webm} for raw recordings, where the directory names the run</li>
+ * </ul>
+ * Artifacts are held in sets ordered newest first (overall and per test), so a filtered,
+ * paged query only walks the candidates it needs.
+ */
+public class ArtifactIndex implements AutoCloseable {
+    private static final Pattern TIMESTAMPED_NAME = Pattern.compile("^(.+?)(?:_(failure|success))?_(\\d{13})\\.([A-Za-z0-9]+)$");
+    private static final Pattern RUN_DIRECTORY = Pattern.compile("\\d{4}-\\d{2}-\\d{2}_\\d{2}-\\d{2}-\\d{2}");
+    private static final DateTimeFormatter RUN_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
+    private static final Comparator<Artifact> NEWEST_FIRST = Comparator.comparingLong(Artifact::timestamp).reversed()
+        .thenComparing(Artifact::path);
+
+    private final Path root;
+    private final List<Path> directories;
+    private final Map<String, Artifact> byPath = new ConcurrentHashMap<>();
+    private final NavigableSet<Artifact> ordered = new ConcurrentSkipListSet<>(NEWEST_FIRST);
+    private final Map<String, NavigableSet<Artifact>> byTest = new ConcurrentHashMap<>();
+    private final Map<WatchKey, Path> watchedDirectories = new ConcurrentHashMap<>();
+    private WatchService watchService;
+    private Thread watcher;
+
+    /**
+     * One indexed file
+     *
+     * @param path Path relative to the served root, with forward slashes (usable as a URL path)
+     * @param test Test name parsed from the file name, or null for raw recordings
+     * @param status failed, passed or step for screenshots, otherwise null
+     * @param kind screenshot, video, thumbnail, trace or other
+     * @param run Name of the timestamped run directory, or null
+     * @param timestamp Time from the file name or run directory, else the modification time
+     * @param size Size in bytes
+     */
+    public record Artifact(String path, String test, String status, String kind, String run, long timestamp, long size) {
+    }
+
+    /**
+     * One page of query results
+     *
+     * @param total Number of matching artifacts
+     * @param offset Index of the first returned artifact
+     * @param limit Requested page size
+     * @param items Matching artifacts on this page, newest first
+     */
+    public record Page(int total, int offset, int limit, List<Artifact> items) {
+    }
+
+    /**
+     * Query filters; null fields match everything
+     */
+    public record Query(String test, String status, String kind, String run, Long from, Long to) {
+        boolean matches(Artifact artifact) {
+            return (status == null || status.equalsIgnoreCase(artifact.status()))
+                && (kind == null || kind.equalsIgnoreCase(artifact.kind()))
+                && (run == null || run.equals(artifact.run()))
+                && (from == null || artifact.timestamp() >= from)
+                && (to == null || artifact.timestamp() < to);
+        }
+    }
+
+    /**
+     * Create an index
+     *
+     * @param root Served root directory; indexed paths are relative to it
+     * @param directories Directories under the root to index, e.g. reports and test-results
+     */
+    public ArtifactIndex(Path root, List<String> directories) {
+        this.root = root.toAbsolutePath().normalize();
+        this.directories = directories.stream().map(this.root::resolve).toList();
+    }
+
+    /**
+     * Index the existing files and start watching for changes
+     */
+    public ArtifactIndex start() throws IOException {
+        watchService = FileSystems.getDefault().newWatchService();
+        for (Path directory : directories) {
+            Files.createDirectories(directory);
+            registerTree(directory);
+        }
+        watcher = new Thread(this::watch, "artifact-index-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        System.out.println("Artifact index started with " + size() + " artifacts");
+        return this;
+    }
+
+    public int size() {
+        return byPath.size();
+    }
+
+    /**
+     * Find artifacts, newest first
+     *
+     * @param query Filters
+     * @param offset Number of matches to skip
+     * @param limit Maximum number of matches to return
+     */
+    public Page query(Query query, int offset, int limit) {
+        NavigableSet<Artifact> candidates = query.test() == null ? ordered : byTest.get(query.test());
+        List<Artifact> items = new ArrayList<>();
+        int total = 0;
+        if (candidates != null) {
+            for (Artifact artifact : candidates) {
+                if (query.matches(artifact)) {
+                    if (total >= offset && items.size() < limit) {
+                        items.add(artifact);
+                    }
+                    total++;
+                }
+            }
+        }
+        return new Page(total, offset, limit, items);
+    }
+
+    @Override
+    public void close() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                System.err.println("Failed to close artifact watcher: " + e.getMessage());
+            }
+        }
+    }
+
+    private void registerTree(Path start) throws IOException {
+        Files.walkFileTree(start, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                WatchKey key = dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+                watchedDirectories.put(key, dir);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                add(file, attrs);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                Path directory = watchedDirectories.get(key);
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        // Events were lost: re-scan everything this key covers
+                        if (directory != null) {
+                            rescan(directory);
+                        }
+                        continue;
+                    }
+                    if (directory == null) {
+                        continue;
+                    }
+                    Path changed = directory.resolve((Path) event.context());
+                    try {
+                        if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                            // May be a directory: its files get no events of their own
+                            removeTree(changed);
+                        } else if (Files.isDirectory(changed)) {
+                            registerTree(changed);
+                        } else {
+                            add(changed, Files.readAttributes(changed, BasicFileAttributes.class));
+                        }
+                    } catch (IOException e) {
+                        // One bad event must not stop the watcher; usually the path is already gone again
+                        if (Files.exists(changed)) {
+                            System.err.println("Failed to index " + changed + ": " + e.getMessage());
+                        } else {
+                            removeTree(changed);
+                        }
+                    }
+                }
+                if (!key.reset()) {
+                    watchedDirectories.remove(key);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Index closed
+        }
+    }
+
+    private void rescan(Path directory) {
+        String prefix = relative(directory) + "/";
+        for (Artifact artifact : new ArrayList<>(byPath.values())) {
+            if (artifact.path().startsWith(prefix) && !Files.exists(root.resolve(artifact.path()))) {
+                remove(root.resolve(artifact.path()));
+            }
+        }
+        try {
+            registerTree(directory);
+        } catch (IOException e) {
+            System.err.println("Failed to rescan " + directory + ": " + e.getMessage());
+        }
+    }
+
+    private void add(Path file, BasicFileAttributes attributes) {
+        if (!attributes.isRegularFile()) {
+            return;
+        }
+        Artifact artifact = parse(file, attributes);
+        remove(file);
+        byPath.put(artifact.path(), artifact);
+        ordered.add(artifact);
+        if (artifact.test() != null) {
+            byTest.computeIfAbsent(artifact.test(), test -> new ConcurrentSkipListSet<>(NEWEST_FIRST)).add(artifact);
+        }
+    }
+
+    /**
+     * Remove a file, or everything indexed under a directory
+     */
+    private void removeTree(Path path) {
+        remove(path);
+        String prefix = relative(path) + "/";
+        for (String indexed : new ArrayList<>(byPath.keySet())) {
+            if (indexed.startsWith(prefix)) {
+                remove(root.resolve(indexed));
+            }
+        }
+    }
+
+    private void remove(Path file) {
+        Artifact previous = byPath.remove(relative(file));
+        if (previous != null) {
+            ordered.remove(previous);
+            if (previous.test() != null) {
+                NavigableSet<Artifact> testArtifacts = byTest.get(previous.test());
+                if (testArtifacts != null) {
+                    testArtifacts.remove(previous);
+                }
+            }
+        }
+    }
+
+    private Artifact parse(Path file, BasicFileAttributes attributes) {
+        String name = file.getFileName().toString();
+        String run = null;
+        Long runTimestamp = null;
+        for (Path parent = file.getParent(); parent != null && parent.startsWith(root); parent = parent.getParent()) {
+            String directoryName = parent.getFileName() == null ? "" : parent.getFileName().toString();
+            if (RUN_DIRECTORY.matcher(directoryName).matches()) {
+                run = directoryName;
+                try {
+                    runTimestamp = LocalDateTime.parse(directoryName, RUN_FORMAT)
+                        .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                } catch (DateTimeParseException e) {
+                    runTimestamp = null;
+                }
+                break;
+            }
+        }
+
+        String test = null;
+        String status = null;
+        long timestamp = runTimestamp != null ? runTimestamp : attributes.lastModifiedTime().toMillis();
+        Path parentName = file.getParent() == null ? null : file.getParent().getFileName();
+        String kind = parentName != null && parentName.toString().equals("thumbnails") ? "thumbnail" : kindOf(name);
+        Matcher matcher = TIMESTAMPED_NAME.matcher(name);
+        if (matcher.matches()) {
+            test = matcher.group(1);
+            timestamp = Long.parseLong(matcher.group(3));
+            if ("screenshot".equals(kind)) {
+                status = matcher.group(2) == null ? "step" : matcher.group(2).equals("failure") ? "failed" : "passed";
+            }
+        } else if (run == null && !"other".equals(kind)) {
+            // Published without a timestamp, e.g. reports/videos/<test>.webm
+            test = name.substring(0, name.lastIndexOf('.'));
+        }
+        return new Artifact(relative(file), test, status, kind, run, timestamp, attributes.size());
+    }
+
+    private String kindOf(String name) {
+        String lower = name.toLowerCase();
+        if (lower.endsWith(".png") || lower.endsWith(".jpg") || lower.endsWith(".jpeg")) {
+            return "screenshot";
+        } else if (lower.endsWith(".webm") || lower.endsWith(".mp4")) {
+            return "video";
+        } else if (lower.endsWith(".zip") || lower.endsWith(".har")) {
+            return "trace";
+        }
+        return "other";
+    }
+
+    private String relative(Path file) {
+        return root.relativize(file.toAbsolutePath().normalize()).toString().replace('\\', '/');
+    }
+}
@@ -0,0 +1,164 @@
+package com.qa.opencart.utils;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Publishes test artifacts (videos, traces) into the reports directory without doubling disk usage.
+ *
+ * The published file is a hard link to the original when both are on the same file system,
+ * so publishing costs no copy and a recording that is still being written (the class's
+ * context closes after its tests) is complete in the report as well. Across file systems,
+ * or where links are not supported, the file has to be copied, and a copy taken while the
+ * recording is still being written would be truncated: those copies are deferred until
+ * {@link #copyDeferred()} is called once the browsers are closed. The work runs on a
+ * background thread; the target name is chosen up front, unique per invocation
+ * ({@code <name>_<millis>.<ext>}), so parameterized and retried runs never overwrite each other.
+ */
+public final class ArtifactPublisher {
+    private static final ExecutorService publisher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "artifact-publisher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final AtomicLong lastTimestamp = new AtomicLong();
+    private static final Queue<CompletableFuture<Path>> pending = new ConcurrentLinkedQueue<>();
+    private static final Queue<Runnable> deferredCopies = new ConcurrentLinkedQueue<>();
+    private static volatile boolean sourcesComplete;
+    private static final LongAdder linked = new LongAdder();
+    private static final LongAdder copied = new LongAdder();
+
+    /**
+     * A publication in progress
+     *
+     * @param target Where the artifact will be, known before it is written
+     * @param done Completed with the target once the artifact is in place
+     */
+    public record Publication(Path target, CompletableFuture<Path> done) {
+    }
+
+    private ArtifactPublisher() {
+    }
+
+    /**
+     * Publish a file in the background
+     *
+     * @param source Artifact to publish
+     * @param targetDirectory Directory to publish into, created if needed
+     * @param name Base name, e.g. the test name; the timestamp and the source's extension are appended
+     */
+    public static Publication publish(Path source, Path targetDirectory, String name) {
+        String fileName = source.getFileName().toString();
+        String extension = fileName.contains(".") ? fileName.substring(fileName.lastIndexOf('.')) : "";
+        Path target = targetDirectory.resolve(name + "_" + uniqueTimestamp() + extension);
+
+        CompletableFuture<Path> done = new CompletableFuture<>();
+        publisher.execute(() -> {
+            try {
+                Files.createDirectories(targetDirectory);
+                Files.createLink(target, source);
+                linked.increment();
+                done.complete(target);
+            } catch (FileAlreadyExistsException e) {
+                done.completeExceptionally(new RuntimeException("Failed to publish " + source + " to " + target, e));
+            } catch (IOException | UnsupportedOperationException e) {
+                // Different file system (or no hard links): copy once the source is complete
+                Runnable copy = () -> {
+                    try {
+                        Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+                        copied.increment();
+                        done.complete(target);
+                    } catch (IOException copyError) {
+                        done.completeExceptionally(new RuntimeException("Failed to publish " + source + " to " + target, copyError));
+                    }
+                };
+                if (sourcesComplete) {
+                    copy.run();
+                } else {
+                    deferredCopies.add(copy);
+                }
+            }
+        });
+        pending.add(done);
+        done.whenComplete((path, error) -> pending.remove(done));
+        return new Publication(target, done);
+    }
+
+    /**
+     * Publish a complete file under a fixed name right away: hard link, else copy
+     */
+    public static void linkOrCopy(Path source, Path target) throws IOException {
+        Files.createDirectories(target.toAbsolutePath().getParent());
+        Files.deleteIfExists(target);
+        try {
+            Files.createLink(target, source);
+            linked.increment();
+        } catch (IOException | UnsupportedOperationException e) {
+            Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+            copied.increment();
+        }
+    }
+
+    /**
+     * Make the copies that could not be hard-linked. Call once the recordings are complete,
+     * i.e. after the browser contexts are closed; their futures complete when copied.
+     */
+    public static void copyDeferred() {
+        // Queued behind the link attempts already submitted, so none of their fallbacks is missed
+        publisher.execute(() -> {
+            sourcesComplete = true;
+            for (Runnable copy; (copy = deferredCopies.poll()) != null; ) {
+                copy.run();
+            }
+        });
+    }
+
+    /**
+     * Wait for publications still in progress, e.g. before the JVM exits at suite end
+     *
+     * @return true if all finished within the timeout
+     */
+    public static boolean awaitPending(Duration timeout) {
+        try {
+            CompletableFuture.allOf(pending.toArray(new CompletableFuture[0]))
+                .get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            // Individual failures were already reported through their own futures
+            return true;
+        }
+    }
+
+    public static long getLinked() {
+        return linked.sum();
+    }
+
+    public static long getCopied() {
+        return copied.sum();
+    }
+
+    /**
+     * Current time in milliseconds, but never the same value twice in this JVM
+     */
+    private static long uniqueTimestamp() {
+        return lastTimestamp.updateAndGet(last -> Math.max(last + 1, System.currentTimeMillis()));
+    }
+}
@@ -0,0 +1,116 @@
+package com.qa.opencart.utils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with HDR-style log-linear buckets.
+ * Values are recorded in microseconds; every power-of-two range is split into
+ * 64 linear sub-buckets, so any percentile is exact to within about 1.5%
+ * while the whole histogram stays a fixed array of a few thousand counters.
+ * Safe to record into from many threads at once.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKET_HALF = 1 << SUB_BUCKET_BITS;      // 64
+    private static final int SUB_BUCKET_COUNT = SUB_BUCKET_HALF << 1;     // 128
+    private static final long MAX_TRACKABLE_MICROS = TimeUnit.HOURS.toMicros(1);
+    private static final int BUCKET_COUNT = indexOf(MAX_TRACKABLE_MICROS) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalMicros = new LongAdder();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    /**
+     * Record one latency
+     *
+     * @param nanos Duration in nanoseconds
+     */
+    public void recordNanos(long nanos) {
+        recordMicros(TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+
+    /**
+     * Record one latency
+     *
+     * @param micros Duration in microseconds
+     */
+    public void recordMicros(long micros) {
+        long value = Math.max(0, Math.min(micros, MAX_TRACKABLE_MICROS));
+        counts.incrementAndGet(indexOf(value));
+        totalCount.increment();
+        totalMicros.add(value);
+        maxMicros.accumulateAndGet(value, Math::max);
+    }
+
+    public long getCount() {
+        return totalCount.sum();
+    }
+
+    public double getMeanMillis() {
+        long count = getCount();
+        return count == 0 ? 0 : totalMicros.sum() / 1000.0 / count;
+    }
+
+    public double getMaxMillis() {
+        return maxMicros.get() / 1000.0;
+    }
+
+    /**
+     * Latency at a percentile
+     *
+     * @param percentile Percentile between 0 and 100
+     * @return Upper bound of the bucket holding the percentile, in milliseconds
+     */
+    public double getPercentileMillis(double percentile) {
+        long count = getCount();
+        if (count == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(highestEquivalentValue(i), maxMicros.get()) / 1000.0;
+            }
+        }
+        return getMaxMillis();
+    }
+
+    /**
+     * Add every value recorded in another histogram to this one
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long count = other.counts.get(i);
+            if (count > 0) {
+                counts.addAndGet(i, count);
+            }
+        }
+        totalCount.add(other.totalCount.sum());
+        totalMicros.add(other.totalMicros.sum());
+        maxMicros.accumulateAndGet(other.maxMicros.get(), Math::max);
+    }
+
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        // Keep the top 7 significant bits: (value >> shift) lands in [64, 128)
+        int shift = (63 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKET_HALF + (int) (value >>> shift);
+    }
+
+    private static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_HALF - 1;
+        long subBucket = index % SUB_BUCKET_HALF + SUB_BUCKET_HALF;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
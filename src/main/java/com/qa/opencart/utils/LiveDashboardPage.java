@@ -0,0 +1,93 @@
+package com.qa.opencart.utils;
+
+/**
+ * Live dashboard served at /live in live mode: subscribes to /events and shows
+ * each test's status and the most recent events while the suite runs
+ */
+final class LiveDashboardPage {
+    static final String HTML = """
+        <!DOCTYPE html>
+        <html>
+        <head>
+            <title>Live Test Run</title>
+            <meta charset="UTF-8">
+            <style>
+                body { font-family: Arial, sans-serif; margin: 20px; background-color: #f5f5f5; }
+                h1 { color: #333; }
+                .summary span { display: inline-block; margin-right: 15px; font-weight: bold; }
+                table { border-collapse: collapse; width: 100%; background: #fff; margin-bottom: 20px; }
+                th, td { border: 1px solid #ddd; padding: 6px 10px; text-align: left; font-size: 13px; }
+                .running { color: #1565c0; } .pass { color: #2e7d32; } .fail { color: #c62828; } .skip { color: #ef6c00; }
+                #log { font-family: monospace; font-size: 12px; background: #fff; border: 1px solid #ddd; padding: 10px; max-height: 300px; overflow-y: auto; }
+                #connection { font-size: 12px; color: #666; }
+            </style>
+        </head>
+        <body>
+            <h1>Live Test Run</h1>
+            <div id="connection">Connecting...</div>
+            <div class="summary">
+                <span class="running">Running: <b id="running">0</b></span>
+                <span class="pass">Passed: <b id="passed">0</b></span>
+                <span class="fail">Failed: <b id="failed">0</b></span>
+                <span class="skip">Skipped: <b id="skipped">0</b></span>
+            </div>
+            <table>
+                <thead><tr><th>Test</th><th>Status</th><th>Last step</th><th>Thread</th></tr></thead>
+                <tbody id="tests"></tbody>
+            </table>
+            <div id="log"></div>
+            <script>
+                const rows = {};
+                const statusOf = { 'test-start': 'running', 'test-pass': 'pass', 'test-fail': 'fail', 'test-skip': 'skip' };
+
+                function row(test) {
+                    if (!rows[test]) {
+                        const tr = document.createElement('tr');
+                        tr.innerHTML = '<td></td><td></td><td></td><td></td>';
+                        tr.cells[0].textContent = test;
+                        document.getElementById('tests').appendChild(tr);
+                        rows[test] = tr;
+                    }
+                    return rows[test];
+                }
+
+                function updateSummary() {
+                    const counts = { running: 0, pass: 0, fail: 0, skip: 0 };
+                    Object.values(rows).forEach(tr => { if (tr.dataset.status) counts[tr.dataset.status]++; });
+                    document.getElementById('running').textContent = counts.running;
+                    document.getElementById('passed').textContent = counts.pass;
+                    document.getElementById('failed').textContent = counts.fail;
+                    document.getElementById('skipped').textContent = counts.skip;
+                }
+
+                function handle(e) {
+                    const data = JSON.parse(e.data);
+                    const tr = row(data.test);
+                    if (statusOf[data.type]) {
+                        tr.dataset.status = statusOf[data.type];
+                        tr.cells[1].textContent = statusOf[data.type];
+                        tr.cells[1].className = statusOf[data.type];
+                        updateSummary();
+                    }
+                    tr.cells[2].textContent = data.message || '';
+                    tr.cells[3].textContent = data.thread;
+
+                    const log = document.getElementById('log');
+                    const line = document.createElement('div');
+                    line.textContent = new Date(data.timestamp).toLocaleTimeString() + '  ' + data.type + '  ' + data.test + '  ' + (data.message || '');
+                    log.prepend(line);
+                    while (log.childNodes.length > 200) log.removeChild(log.lastChild);
+                }
+
+                const source = new EventSource('/events');
+                ['test-start', 'step', 'attachment', 'test-pass', 'test-fail', 'test-skip'].forEach(type => source.addEventListener(type, handle));
+                source.onopen = () => document.getElementById('connection').textContent = 'Connected';
+                source.onerror = () => document.getElementById('connection').textContent = 'Disconnected, retrying...';
+            </script>
+        </body>
+        </html>
+        """;
+
+    private LiveDashboardPage() {
+    }
+}
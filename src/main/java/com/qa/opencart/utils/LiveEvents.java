@@ -0,0 +1,180 @@
+package com.qa.opencart.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-JVM event stream behind the live report (see {@link SimpleHttpServer#enableLiveMode()}).
+ *
+ * Test threads publish test-start, step, attachment and result events; each event goes into
+ * a ring buffer of recent events (replayed to viewers that connect or reconnect late) and into
+ * a bounded queue per connected viewer. Publishing never blocks: when a slow viewer's queue is
+ * full its event is dropped and counted, so viewers cannot slow the tests down.
+ * Until live mode is enabled, {@link #publish} returns immediately.
+ */
+public final class LiveEvents {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final int RING_SIZE = 1024;
+    private static final int SUBSCRIBER_QUEUE_SIZE = 256;
+
+    private static volatile boolean enabled;
+    private static final AtomicLong sequence = new AtomicLong();
+    private static final AtomicReferenceArray<Event> ring = new AtomicReferenceArray<>(RING_SIZE);
+    private static final Set<Subscriber> subscribers = new CopyOnWriteArraySet<>();
+    private static final LongAdder dropped = new LongAdder();
+
+    /**
+     * One published event
+     *
+     * @param id Sequence number, used as the SSE event id
+     * @param type Event type, e.g. test-start or test-fail
+     * @param json Event payload as JSON
+     */
+    public record Event(long id, String type, String json) {
+        /**
+         * Event in text/event-stream wire format
+         */
+        public String toSse() {
+            return "id: " + id + "\nevent: " + type + "\ndata: " + json + "\n\n";
+        }
+    }
+
+    /**
+     * A connected viewer with its own bounded queue
+     */
+    public static class Subscriber implements AutoCloseable {
+        private static final Event CLOSED = new Event(-1, "closed", "{}");
+
+        private final BlockingQueue<Event> queue = new ArrayBlockingQueue<>(SUBSCRIBER_QUEUE_SIZE);
+
+        private Subscriber() {
+        }
+
+        /**
+         * Wait for the next event
+         *
+         * @return The event, or null on timeout (time for a keep-alive)
+         * @throws InterruptedException If the viewer thread is interrupted
+         * @throws IllegalStateException If the stream was closed by {@link #disconnectAll()}
+         */
+        public Event next(long timeout, TimeUnit unit) throws InterruptedException {
+            Event event = queue.poll(timeout, unit);
+            if (event == CLOSED) {
+                throw new IllegalStateException("Live event stream closed");
+            }
+            return event;
+        }
+
+        @Override
+        public void close() {
+            subscribers.remove(this);
+        }
+    }
+
+    private LiveEvents() {
+    }
+
+    public static void enable() {
+        enabled = true;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Publish an event to every viewer without blocking
+     *
+     * @param type Event type: test-start, step, attachment, test-pass, test-fail or test-skip
+     * @param test Test name
+     * @param message Human-readable detail
+     */
+    public static void publish(String type, String test, String message) {
+        if (!enabled) {
+            return;
+        }
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("type", type);
+        payload.put("test", test);
+        payload.put("message", message);
+        payload.put("thread", Thread.currentThread().getName());
+        payload.put("timestamp", System.currentTimeMillis());
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            return;
+        }
+
+        long id = sequence.incrementAndGet();
+        Event event = new Event(id, type, json);
+        ring.set((int) (id % RING_SIZE), event);
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.queue.offer(event)) {
+                dropped.increment();
+            }
+        }
+    }
+
+    /**
+     * Register a viewer
+     *
+     * @param lastEventId Last event the viewer has seen (from Last-Event-ID), or 0 for a new viewer
+     * @param replay Receives the buffered events after lastEventId, oldest first
+     * @param maxSubscribers Viewers allowed at once
+     * @return The subscriber, or null if maxSubscribers viewers are already connected
+     */
+    public static Subscriber subscribe(long lastEventId, List<Event> replay, int maxSubscribers) {
+        Subscriber subscriber = new Subscriber();
+        synchronized (subscribers) {
+            if (subscribers.size() >= maxSubscribers) {
+                return null;
+            }
+            subscribers.add(subscriber);
+        }
+        // Registered first, so nothing published from now on is missed; skip duplicates by id
+        long newest = sequence.get();
+        for (long id = Math.max(lastEventId + 1, newest - RING_SIZE + 1); id <= newest; id++) {
+            Event event = ring.get((int) (id % RING_SIZE));
+            if (event != null && event.id() == id) {
+                replay.add(event);
+            }
+        }
+        return subscriber;
+    }
+
+    /**
+     * End every open stream, e.g. when the server stops
+     */
+    public static void disconnectAll() {
+        for (Subscriber subscriber : new ArrayList<>(subscribers)) {
+            subscriber.queue.clear();
+            subscriber.queue.offer(Subscriber.CLOSED);
+            subscribers.remove(subscriber);
+        }
+    }
+
+    public static int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Events discarded because a viewer's queue was full
+     */
+    public static long getDropped() {
+        return dropped.sum();
+    }
+}
@@ -1,12 +1,53 @@
 package com.qa.opencart.utils;
 
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
 import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpContext;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import com.sun.net.httpserver.HttpServer;
@@ -14,12 +55,42 @@ import com.sun.net.httpserver.HttpServer;
 /**
  * A simple HTTP server to serve test reports and videos
  * This helps avoid browser security restrictions when accessing local files
+ * 
+ * Requests run on a virtual thread each when the JVM supports them (Java 21+),
+ * otherwise on a bounded pool. Each client address gets a limited number of concurrent
+ * requests (further ones get 503), and live counters are served as JSON from /__stats.
  */
 public class SimpleHttpServer {
+    public static final String STATS_PATH = "/__stats";
+    public static final String EVENTS_PATH = "/events";
+    public static final String LIVE_PATH = "/live";
+    public static final String ARTIFACTS_PATH = "/api/artifacts";
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final long KEEP_ALIVE_SECONDS = 15;
+    
     private HttpServer server;
+    private ExecutorService executor;
     private int port;
     private String rootDirectory;
-    private boolean isRunning = false;
+    private volatile boolean isRunning = false;
+    
+    private int maxThreads = 0;
+    private int backlog = 128;
+    private int maxRequestsPerClient = 16;
+    private Duration drainTimeout = Duration.ofSeconds(10);
+    private boolean liveMode = false;
+    private int maxLiveViewers = 8;
+    private volatile int liveViewerLimit;
+    private List<String> artifactDirectories = List.of();
+    private ArtifactIndex artifactIndex;
+    
+    private final AtomicInteger activeConnections = new AtomicInteger();
+    private final LongAdder totalRequests = new LongAdder();
+    private final LongAdder rejectedRequests = new LongAdder();
+    private final LongAdder bytesServed = new LongAdder();
+    private final Map<InetAddress, AtomicInteger> requestsPerClient = new ConcurrentHashMap<>();
+    private final FileCache fileCache = new FileCache(512, 32 * 1024 * 1024, 256 * 1024);
 
     /**
      * Create a new HTTP server
@@ -32,6 +103,66 @@ public class SimpleHttpServer {
         this.rootDirectory = rootDirectory;
     }
 
+    /**
+     * Worker threads; 0 (the default) uses a virtual thread per request when available
+     */
+    public SimpleHttpServer setMaxThreads(int maxThreads) {
+        this.maxThreads = maxThreads;
+        return this;
+    }
+
+    /**
+     * Pending connections the OS queues before refusing new ones
+     */
+    public SimpleHttpServer setBacklog(int backlog) {
+        this.backlog = backlog;
+        return this;
+    }
+
+    /**
+     * Concurrent requests allowed from one client address; 0 disables the limit
+     */
+    public SimpleHttpServer setMaxRequestsPerClient(int maxRequestsPerClient) {
+        this.maxRequestsPerClient = maxRequestsPerClient;
+        return this;
+    }
+
+    /**
+     * How long {@link #stop()} lets in-flight downloads finish
+     */
+    public SimpleHttpServer setDrainTimeout(Duration drainTimeout) {
+        this.drainTimeout = drainTimeout;
+        return this;
+    }
+
+    /**
+     * Live mode, for a server running inside the test JVM: streams {@link LiveEvents}
+     * as Server-Sent Events from /events and serves a dashboard at /live
+     */
+    public SimpleHttpServer enableLiveMode() {
+        this.liveMode = true;
+        return this;
+    }
+
+    /**
+     * Event streams allowed at once; each holds a worker for as long as the viewer stays,
+     * so with a thread pool at most half the workers are given to viewers
+     */
+    public SimpleHttpServer setMaxLiveViewers(int maxLiveViewers) {
+        this.maxLiveViewers = maxLiveViewers;
+        return this;
+    }
+
+    /**
+     * Index artifacts under these directories (relative to the root) and serve queries from /api/artifacts
+     * 
+     * @param directories Directories to index, e.g. "reports" and "test-results"
+     */
+    public SimpleHttpServer enableArtifactIndex(String... directories) {
+        this.artifactDirectories = List.of(directories);
+        return this;
+    }
+
     /**
      * Start the HTTP server
      * 
@@ -39,27 +170,310 @@ public class SimpleHttpServer {
      * @throws IOException If the server cannot be started
      */
     public String start() throws IOException {
-        server = HttpServer.create(new InetSocketAddress(port), 0);
-        server.createContext("/", new FileHandler(rootDirectory));
-        server.setExecutor(Executors.newCachedThreadPool());
+        server = HttpServer.create(new InetSocketAddress(port), backlog);
+        HttpContext files = server.createContext("/", new FileHandler(rootDirectory, fileCache));
+        files.getFilters().add(new ConnectionFilter());
+        server.createContext(STATS_PATH, this::handleStats);
+        if (!artifactDirectories.isEmpty()) {
+            artifactIndex = new ArtifactIndex(Paths.get(rootDirectory), artifactDirectories).start();
+            server.createContext(ARTIFACTS_PATH, this::handleArtifacts);
+        }
+        if (liveMode) {
+            LiveEvents.enable();
+            // Streams count against the client's request limit like any other request
+            server.createContext(EVENTS_PATH, this::handleEvents).getFilters().add(new ConnectionFilter());
+            server.createContext(LIVE_PATH, this::handleDashboard);
+        }
+        executor = createExecutor();
+        liveViewerLimit = executor instanceof ThreadPoolExecutor pool
+            ? Math.min(maxLiveViewers, Math.max(1, pool.getMaximumPoolSize() / 2))
+            : maxLiveViewers;
+        server.setExecutor(executor);
         server.start();
         isRunning = true;
         
         String serverUrl = "http://localhost:" + port;
         System.out.println("HTTP Server started at: " + serverUrl);
         System.out.println("To view test reports, open: " + serverUrl + "/reports/TestExecutionReport.html");
+        if (liveMode) {
+            System.out.println("To follow the run live, open: " + serverUrl + LIVE_PATH);
+        }
         
         return serverUrl;
     }
 
     /**
-     * Stop the HTTP server
+     * Stop the HTTP server: stop accepting connections, let in-flight requests
+     * finish for up to the drain timeout, then stop the workers
      */
     public void stop() {
         if (server != null && isRunning) {
-            server.stop(0);
             isRunning = false;
-            System.out.println("HTTP Server stopped");
+            int inFlight = activeConnections.get();
+            if (inFlight > 0) {
+                System.out.println("Draining " + inFlight + " in-flight request(s) before stopping");
+            }
+            if (liveMode) {
+                // Event streams never finish on their own
+                LiveEvents.disconnectAll();
+            }
+            server.stop((int) Math.max(0, drainTimeout.toSeconds()));
+            if (artifactIndex != null) {
+                artifactIndex.close();
+            }
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(drainTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                    executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+            System.out.println("HTTP Server stopped (" + getTotalRequests() + " requests, " + getBytesServed() + " bytes served)");
+        }
+    }
+
+    /** Requests currently being served */
+    public int getActiveConnections() {
+        return activeConnections.get();
+    }
+
+    public long getTotalRequests() {
+        return totalRequests.sum();
+    }
+
+    /** Requests turned away with 503 by the per-client limit or the live viewer limit */
+    public long getRejectedRequests() {
+        return rejectedRequests.sum();
+    }
+
+    /** Response body bytes written since start */
+    public long getBytesServed() {
+        return bytesServed.sum();
+    }
+
+    /** Full-file responses served from the in-memory file cache */
+    public long getFileCacheHits() {
+        return fileCache.getHits();
+    }
+
+    /** Small files that had to be read from disk (first request or changed since cached) */
+    public long getFileCacheMisses() {
+        return fileCache.getMisses();
+    }
+
+    private ExecutorService createExecutor() {
+        if (maxThreads <= 0) {
+            try {
+                // Executors.newVirtualThreadPerTaskExecutor() exists from Java 21; the build targets 17
+                ExecutorService virtualThreads = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+                System.out.println("HTTP Server using a virtual thread per request");
+                return virtualThreads;
+            } catch (ReflectiveOperationException e) {
+                // Older JVM: fall back to a pool sized for blocking file I/O
+            }
+        }
+        int threads = maxThreads > 0 ? maxThreads : Runtime.getRuntime().availableProcessors() * 4;
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "report-server-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        pool.allowCoreThreadTimeOut(true);
+        System.out.println("HTTP Server using up to " + threads + " worker threads");
+        return pool;
+    }
+
+    private void handleStats(HttpExchange exchange) throws IOException {
+        byte[] body = String.format("{\"activeConnections\":%d,\"totalRequests\":%d,\"rejectedRequests\":%d,"
+                + "\"bytesServed\":%d,\"fileCacheHits\":%d,\"fileCacheMisses\":%d,\"fileCacheBytes\":%d,"
+                + "\"liveViewers\":%d,\"liveEventsDropped\":%d}",
+            getActiveConnections(), getTotalRequests(), getRejectedRequests(), getBytesServed(),
+            getFileCacheHits(), getFileCacheMisses(), fileCache.getBytes(),
+            LiveEvents.getSubscriberCount(), LiveEvents.getDropped())
+            .getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.getResponseHeaders().set("Cache-Control", "no-store");
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+
+    /**
+     * Server-Sent Events stream: replays recent events (after Last-Event-ID on reconnect),
+     * then forwards new ones as they are published, with a comment line as keep-alive.
+     * Viewers beyond the live viewer limit get 503 and retry later.
+     */
+    private void handleEvents(HttpExchange exchange) throws IOException {
+        long lastEventId = 0;
+        String lastEventHeader = exchange.getRequestHeaders().getFirst("Last-Event-ID");
+        if (lastEventHeader != null) {
+            try {
+                lastEventId = Long.parseLong(lastEventHeader.trim());
+            } catch (NumberFormatException e) {
+                // Unknown id: replay everything still buffered
+            }
+        }
+        
+        List<LiveEvents.Event> replay = new ArrayList<>();
+        LiveEvents.Subscriber viewer = LiveEvents.subscribe(lastEventId, replay, liveViewerLimit);
+        if (viewer == null) {
+            rejectedRequests.increment();
+            exchange.getResponseHeaders().set("Retry-After", "10");
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+            return;
+        }
+        
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream; charset=utf-8");
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        try (LiveEvents.Subscriber subscriber = viewer) {
+            exchange.sendResponseHeaders(200, 0);
+            OutputStream out = exchange.getResponseBody();
+            // Publishers on different threads can queue ids out of order, so only what the
+            // replay already sent is a duplicate (ids up to the last replayed one)
+            Set<Long> replayed = new HashSet<>();
+            long replayedUpTo = lastEventId;
+            out.write("retry: 2000\n\n".getBytes(StandardCharsets.UTF_8));
+            for (LiveEvents.Event event : replay) {
+                out.write(event.toSse().getBytes(StandardCharsets.UTF_8));
+                replayed.add(event.id());
+                replayedUpTo = event.id();
+            }
+            out.flush();
+            while (isRunning) {
+                LiveEvents.Event event = subscriber.next(KEEP_ALIVE_SECONDS, TimeUnit.SECONDS);
+                if (event == null) {
+                    out.write(": keep-alive\n\n".getBytes(StandardCharsets.UTF_8));
+                } else if (event.id() > replayedUpTo || !replayed.contains(event.id())) {
+                    out.write(event.toSse().getBytes(StandardCharsets.UTF_8));
+                }
+                out.flush();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | IllegalStateException e) {
+            // Viewer went away or the server is stopping
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Artifact search, e.g. /api/artifacts?test=addToCartFromPDPTest&amp;status=failed&amp;from=2024-05-01&amp;limit=50
+     * 
+     * Filters: test, status (failed, passed, step), kind (screenshot, video, trace, other), run,
+     * from and to (epoch millis or yyyy-MM-dd); paging with offset and limit.
+     */
+    private void handleArtifacts(HttpExchange exchange) throws IOException {
+        Map<String, String> params = queryParameters(exchange.getRequestURI().getRawQuery());
+        byte[] body;
+        int status = 200;
+        try {
+            ArtifactIndex.Query query = new ArtifactIndex.Query(params.get("test"), params.get("status"),
+                params.get("kind"), params.get("run"), parseTime(params.get("from")), parseTime(params.get("to")));
+            int offset = Math.max(0, Integer.parseInt(params.getOrDefault("offset", "0")));
+            int limit = Math.max(1, Math.min(MAX_PAGE_SIZE, Integer.parseInt(params.getOrDefault("limit", "100"))));
+            body = objectMapper.writeValueAsBytes(artifactIndex.query(query, offset, limit));
+        } catch (NumberFormatException | DateTimeParseException e) {
+            status = 400;
+            body = objectMapper.writeValueAsBytes(Map.of("error", "Invalid query parameter: " + e.getMessage()));
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+
+    private Map<String, String> queryParameters(String rawQuery) {
+        Map<String, String> params = new LinkedHashMap<>();
+        if (rawQuery != null) {
+            for (String pair : rawQuery.split("&")) {
+                String[] parts = pair.split("=", 2);
+                if (parts.length == 2 && !parts[1].isEmpty()) {
+                    params.put(URLDecoder.decode(parts[0], StandardCharsets.UTF_8), URLDecoder.decode(parts[1], StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return params;
+    }
+
+    private Long parseTime(String value) {
+        if (value == null) {
+            return null;
+        }
+        if (value.chars().allMatch(Character::isDigit)) {
+            return Long.parseLong(value);
+        }
+        return LocalDate.parse(value).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private void handleDashboard(HttpExchange exchange) throws IOException {
+        byte[] body = LiveDashboardPage.HTML.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+
+    /**
+     * Counts active requests and served bytes, and enforces the per-client limit
+     */
+    class ConnectionFilter extends Filter {
+        @Override
+        public void doFilter(HttpExchange exchange, Chain chain) throws IOException {
+            totalRequests.increment();
+            InetAddress client = exchange.getRemoteAddress().getAddress();
+            AtomicInteger clientRequests = requestsPerClient.computeIfAbsent(client, address -> new AtomicInteger());
+            try {
+                if (maxRequestsPerClient > 0 && clientRequests.incrementAndGet() > maxRequestsPerClient) {
+                    rejectedRequests.increment();
+                    exchange.getResponseHeaders().set("Retry-After", "1");
+                    exchange.sendResponseHeaders(503, -1);
+                    exchange.close();
+                    return;
+                }
+                activeConnections.incrementAndGet();
+                try {
+                    exchange.setStreams(null, new CountingOutputStream(exchange.getResponseBody()));
+                    chain.doFilter(exchange);
+                } finally {
+                    activeConnections.decrementAndGet();
+                }
+            } finally {
+                if (maxRequestsPerClient > 0) {
+                    clientRequests.decrementAndGet();
+                }
+            }
+        }
+
+        @Override
+        public String description() {
+            return "Per-client request limit and traffic counters";
+        }
+    }
+
+    private class CountingOutputStream extends FilterOutputStream {
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            bytesServed.increment();
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            bytesServed.add(len);
         }
     }
 
@@ -67,10 +481,36 @@ public class SimpleHttpServer {
      * Handler for serving files
      */
     static class FileHandler implements HttpHandler {
+        // Preferred order: brotli compresses text better than gzip
+        private static final String[][] PRECOMPRESSED = {{"br", ".br"}, {"gzip", ".gz"}};
+        private static final long MIN_COMPRESS_SIZE = 1024;
+        private static final Pattern CONTENT_ADDRESSED = Pattern.compile(".+[.-][0-9a-f]{8,64}\\.[A-Za-z0-9]+$");
+        // <test>_<epoch millis>.<image>: written once by the report and never rewritten under that name
+        private static final Pattern TIMESTAMPED_IMAGE = Pattern.compile(".+_[0-9]{13}\\.(png|jpe?g|webp|gif)$", Pattern.CASE_INSENSITIVE);
+        private static final long MAX_CACHED_COMPRESS_SIZE = 512 * 1024;
+        // A WebM written to this recently may still be recording; one with an open-ended segment, for longer
+        private static final long RECORDING_QUIET_MILLIS = 5_000;
+        private static final long RECORDING_MAX_PAUSE_MILLIS = 60_000;
+        private static final long FAILED_TRANSCODE_TTL_NANOS = TimeUnit.SECONDS.toNanos(60);
+        
         private String rootDirectory;
+        private final MetadataCache metadataCache = new MetadataCache(1024, TimeUnit.SECONDS.toNanos(2));
+        // Failed or timed-out transcodes per MP4, valid while the WebM keeps the same ETag
+        private final Map<Path, FailedTranscode> failedTranscodes = new ConcurrentHashMap<>();
+        private final CompressedCache compressedCache = new CompressedCache(8 * 1024 * 1024);
+        private final FileCache fileCache;
 
         public FileHandler(String rootDirectory) {
+            this(rootDirectory, new FileCache(512, 32 * 1024 * 1024, 256 * 1024));
+        }
+
+        /**
+         * @param rootDirectory Directory to serve files from
+         * @param fileCache Cache for small files, shared with the server's statistics
+         */
+        FileHandler(String rootDirectory, FileCache fileCache) {
             this.rootDirectory = rootDirectory;
+            this.fileCache = fileCache;
         }
 
         @Override
@@ -92,8 +532,12 @@ public class SimpleHttpServer {
             // Create the full path to the requested file
             Path filePath = Paths.get(rootDirectory, requestPath);
             
-            // Check if the file exists
-            if (!Files.exists(filePath) || Files.isDirectory(filePath)) {
+            // Validators come from the metadata cache, so repeat views need no disk access
+            FileMetadata metadata = metadataCache.get(filePath);
+            if (metadata == null && requestPath.toLowerCase().endsWith(".mp4") && transcodeOnRequest(exchange, filePath)) {
+                return;
+            }
+            if (metadata == null) {
                 String response = "File not found: " + requestPath;
                 exchange.sendResponseHeaders(404, response.length());
                 exchange.getResponseBody().write(response.getBytes());
@@ -104,13 +548,412 @@ public class SimpleHttpServer {
             // Determine the MIME type
             String mimeType = getMimeType(filePath.toString());
             exchange.getResponseHeaders().set("Content-Type", mimeType);
+            exchange.getResponseHeaders().set("Cache-Control", cacheControl(filePath));
+            
+            // Content negotiation: a precompressed sibling (report.html.br / .gz) wins, then gzip on the fly for text
+            String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            boolean compressible = isCompressible(mimeType);
+            Path bodyPath = filePath;
+            String contentEncoding = null;
+            for (String[] precompressed : PRECOMPRESSED) {
+                if (accepts(acceptEncoding, precompressed[0])) {
+                    Path siblingPath = Paths.get(filePath + precompressed[1]);
+                    FileMetadata sibling = metadataCache.get(siblingPath);
+                    // Ignore a sibling older than the file it was compressed from
+                    if (sibling != null && sibling.lastModifiedMillis() >= metadata.lastModifiedMillis()) {
+                        bodyPath = siblingPath;
+                        metadata = sibling;
+                        contentEncoding = precompressed[0];
+                        break;
+                    }
+                }
+            }
+            boolean gzipOnTheFly = contentEncoding == null && compressible
+                && metadata.size() >= MIN_COMPRESS_SIZE && accepts(acceptEncoding, "gzip");
+            if (gzipOnTheFly) {
+                contentEncoding = "gzip";
+                metadata = metadata.withEncoding(contentEncoding);
+            }
+            if (compressible || contentEncoding != null) {
+                exchange.getResponseHeaders().set("Vary", "Accept-Encoding");
+            }
+            if (contentEncoding != null) {
+                exchange.getResponseHeaders().set("Content-Encoding", contentEncoding);
+            }
+            setValidators(exchange, metadata);
+            
+            if (notModified(exchange, metadata)) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            
+            if (gzipOnTheFly) {
+                sendGzipped(exchange, filePath, metadata);
+                return;
+            }
+            
+            // Small files that get here come from memory: icons, thumbnails, precompressed siblings and
+            // text sent uncompressed; report CSS/JS for gzip clients took the compressed cache above.
+            // Large files stream from disk
+            if (exchange.getRequestHeaders().getFirst("Range") == null) {
+                ByteBuffer cached = fileCache.get(bodyPath, metadata);
+                if (cached != null) {
+                    exchange.sendResponseHeaders(200, cached.remaining() == 0 ? -1 : cached.remaining());
+                    WritableByteChannel target = Channels.newChannel(exchange.getResponseBody());
+                    while (cached.hasRemaining()) {
+                        target.write(cached);
+                    }
+                    exchange.getResponseBody().close();
+                    return;
+                }
+            }
             
             // Send the file
-            exchange.sendResponseHeaders(200, Files.size(filePath));
-            Files.copy(filePath, exchange.getResponseBody());
+            try (FileChannel file = FileChannel.open(bodyPath, StandardOpenOption.READ)) {
+                if (file.size() != metadata.size()) {
+                    // Rewritten since it was cached: describe the file actually being sent
+                    metadata = metadataCache.refresh(bodyPath);
+                    if (metadata == null) {
+                        exchange.sendResponseHeaders(404, -1);
+                        exchange.close();
+                        return;
+                    }
+                    setValidators(exchange, metadata);
+                }
+                long size = metadata.size();
+                
+                // Range support so video players can start and seek without downloading the whole file
+                List<ByteRange> ranges = null;
+                String rangeHeader = exchange.getRequestHeaders().getFirst("Range");
+                if (rangeHeader != null && ifRangeMatches(exchange.getRequestHeaders().getFirst("If-Range"), metadata)) {
+                    ranges = ByteRange.parse(rangeHeader, size);
+                    if (ranges != null && ranges.isEmpty()) {
+                        exchange.getResponseHeaders().set("Content-Range", "bytes */" + size);
+                        exchange.sendResponseHeaders(416, -1);
+                        exchange.close();
+                        return;
+                    }
+                }
+                
+                if (ranges == null) {
+                    exchange.sendResponseHeaders(200, size == 0 ? -1 : size);
+                    sendRegion(file, 0, size, exchange.getResponseBody());
+                } else if (ranges.size() == 1) {
+                    ByteRange range = ranges.get(0);
+                    exchange.getResponseHeaders().set("Content-Range", range.contentRange(size));
+                    exchange.sendResponseHeaders(206, range.length());
+                    sendRegion(file, range.start(), range.length(), exchange.getResponseBody());
+                } else {
+                    sendMultipart(exchange, file, ranges, size, mimeType);
+                }
+            }
             exchange.getResponseBody().close();
         }
         
+        /**
+         * A transcode that failed or timed out for one version (ETag) of the WebM
+         */
+        private record FailedTranscode(String webmEtag, String reason, long failedAtNanos) {
+            boolean appliesTo(FileMetadata webm) {
+                return webmEtag.equals(webm.etag()) && System.nanoTime() - failedAtNanos < FAILED_TRANSCODE_TTL_NANOS;
+            }
+        }
+        
+        /**
+         * MP4s are only produced on demand: a request for video.mp4 that does not exist yet
+         * queues a real transcode of video.webm (when FFmpeg is installed) and answers 503 with
+         * Retry-After until it is ready. A player listing the WebM source first never asks for it.
+         * A WebM that is still being recorded is not queued (it would be cut short), and a
+         * failed or timed-out transcode answers 500 for a while instead of being queued again.
+         *
+         * @return true if a response was sent
+         */
+        private boolean transcodeOnRequest(HttpExchange exchange, Path mp4Path) throws IOException {
+            String fileName = mp4Path.getFileName().toString();
+            Path webmPath = mp4Path.resolveSibling(fileName.substring(0, fileName.length() - 4) + ".webm");
+            FileMetadata webm = metadataCache.get(webmPath);
+            if (webm == null || !TranscodingService.shared().isAvailable()) {
+                return false;
+            }
+            exchange.getResponseHeaders().set("Cache-Control", "no-store");
+            FailedTranscode failed = failedTranscodes.get(mp4Path);
+            if (failed != null && failed.appliesTo(webm)) {
+                sendText(exchange, 500, "Transcoding " + fileName + " failed: " + failed.reason());
+                return true;
+            }
+            failedTranscodes.remove(mp4Path);
+            if (isStillRecording(webmPath, webm)) {
+                exchange.getResponseHeaders().set("Retry-After", "10");
+                sendText(exchange, 503, "Recording of " + fileName + " is still in progress, retry later");
+                return true;
+            }
+            TranscodingService.shared().toMp4(webmPath, mp4Path)
+                .whenComplete((path, error) -> {
+                    if (error != null) {
+                        Throwable cause = error.getCause() != null ? error.getCause() : error;
+                        failedTranscodes.put(mp4Path, new FailedTranscode(webm.etag(), String.valueOf(cause.getMessage()), System.nanoTime()));
+                    }
+                    metadataCache.refresh(mp4Path);
+                });
+            exchange.getResponseHeaders().set("Retry-After", "5");
+            sendText(exchange, 503, "Transcoding " + fileName + ", retry shortly");
+            return true;
+        }
+        
+        /**
+         * Playwright writes the WebM while the context records and only completes it when the
+         * context closes: the file is still growing, or (between frames of an idle page) its
+         * Matroska segment still has the open-ended size FFmpeg fills in when it finishes
+         */
+        private boolean isStillRecording(Path webmPath, FileMetadata webm) {
+            long quietMillis = System.currentTimeMillis() - webm.lastModifiedMillis();
+            if (quietMillis < RECORDING_QUIET_MILLIS) {
+                return true;
+            }
+            return quietMillis < RECORDING_MAX_PAUSE_MILLIS && hasOpenEndedSegment(webmPath);
+        }
+        
+        private boolean hasOpenEndedSegment(Path webmPath) {
+            byte[] head = new byte[64];
+            int length;
+            try (FileChannel channel = FileChannel.open(webmPath, StandardOpenOption.READ)) {
+                length = channel.read(ByteBuffer.wrap(head));
+            } catch (IOException e) {
+                return false;
+            }
+            // Segment element ID 18 53 80 67, then its size as an EBML variable-length integer
+            for (int i = 0; i + 4 < length; i++) {
+                if ((head[i] & 0xFF) == 0x18 && (head[i + 1] & 0xFF) == 0x53
+                        && (head[i + 2] & 0xFF) == 0x80 && (head[i + 3] & 0xFF) == 0x67) {
+                    int first = head[i + 4] & 0xFF;
+                    int sizeLength = Integer.numberOfLeadingZeros(first) - 23;
+                    if (sizeLength < 1 || sizeLength > 8 || i + 4 + sizeLength > length) {
+                        return false;
+                    }
+                    // Unknown size: every value bit set
+                    int mask = 0xFF >> sizeLength;
+                    if ((first & mask) != mask) {
+                        return false;
+                    }
+                    for (int j = 1; j < sizeLength; j++) {
+                        if ((head[i + 4 + j] & 0xFF) != 0xFF) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }
+            }
+            return false;
+        }
+        
+        private void sendText(HttpExchange exchange, int status, String text) throws IOException {
+            byte[] response = text.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, response.length);
+            exchange.getResponseBody().write(response);
+            exchange.getResponseBody().close();
+        }
+        
+        /**
+         * Compress a text file with gzip. Small files are compressed once per version and
+         * kept in the compressed-bytes cache; larger ones are compressed while streaming.
+         * Range requests are not applied to on-the-fly compressed bodies.
+         */
+        private void sendGzipped(HttpExchange exchange, Path filePath, FileMetadata metadata) throws IOException {
+            exchange.getResponseHeaders().remove("Accept-Ranges");
+            if (metadata.size() <= MAX_CACHED_COMPRESS_SIZE) {
+                byte[] compressed = compressedCache.get(filePath, metadata.etag());
+                if (compressed == null) {
+                    ByteArrayOutputStream buffer = new ByteArrayOutputStream((int) metadata.size() / 4 + 64);
+                    try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+                        Files.copy(filePath, gzip);
+                    }
+                    compressed = buffer.toByteArray();
+                    compressedCache.put(filePath, metadata.etag(), compressed);
+                }
+                exchange.sendResponseHeaders(200, compressed.length);
+                exchange.getResponseBody().write(compressed);
+                exchange.getResponseBody().close();
+                return;
+            }
+            
+            // Length unknown up front: chunked transfer encoding
+            exchange.sendResponseHeaders(200, 0);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(exchange.getResponseBody(), 64 * 1024)) {
+                Files.copy(filePath, gzip);
+            }
+        }
+        
+        /**
+         * Whether an Accept-Encoding header allows a content coding (q=0 means refused)
+         */
+        private boolean accepts(String acceptEncoding, String coding) {
+            if (acceptEncoding == null) {
+                return false;
+            }
+            Boolean wildcard = null;
+            for (String part : acceptEncoding.split(",")) {
+                String[] tokens = part.trim().split(";");
+                double quality = 1.0;
+                for (int i = 1; i < tokens.length; i++) {
+                    String parameter = tokens[i].trim();
+                    if (parameter.startsWith("q=")) {
+                        try {
+                            quality = Double.parseDouble(parameter.substring(2));
+                        } catch (NumberFormatException e) {
+                            quality = 0;
+                        }
+                    }
+                }
+                String name = tokens[0].trim();
+                if (name.equalsIgnoreCase(coding)) {
+                    return quality > 0;
+                }
+                if (name.equals("*")) {
+                    wildcard = quality > 0;
+                }
+            }
+            return wildcard != null && wildcard;
+        }
+        
+        private boolean isCompressible(String mimeType) {
+            return mimeType.startsWith("text/") || mimeType.equals("application/javascript")
+                || mimeType.equals("application/json") || mimeType.equals("application/xml")
+                || mimeType.equals("image/svg+xml");
+        }
+        
+        private void setValidators(HttpExchange exchange, FileMetadata metadata) {
+            exchange.getResponseHeaders().set("Accept-Ranges", "bytes");
+            exchange.getResponseHeaders().set("ETag", metadata.etag());
+            exchange.getResponseHeaders().set("Last-Modified", metadata.lastModified());
+        }
+        
+        /**
+         * Files whose name never gets new content may be kept for a year: content-addressed files
+         * (a content hash in the name, e.g. app.3f9a2c1d.js) and the timestamp-named screenshots and
+         * thumbnail strips (screenshots/&lt;test&gt;_&lt;millis&gt;.png, thumbnails/&lt;test&gt;_&lt;millis&gt;.jpg).
+         * Everything else is revalidated on every view with the ETag/Last-Modified validators:
+         * videos grow while their context is still recording, MP4s appear later under the same
+         * name and the report rewrites its own HTML.
+         */
+        private String cacheControl(Path filePath) {
+            String fileName = filePath.getFileName().toString();
+            if (CONTENT_ADDRESSED.matcher(fileName).matches() || isTimestampedImage(filePath)) {
+                return "public, max-age=31536000, immutable";
+            }
+            return "no-cache";
+        }
+        
+        private boolean isTimestampedImage(Path filePath) {
+            Path parent = filePath.getParent();
+            if (parent == null || parent.getFileName() == null) {
+                return false;
+            }
+            String directory = parent.getFileName().toString();
+            return (directory.equals("screenshots") || directory.equals("thumbnails"))
+                && TIMESTAMPED_IMAGE.matcher(filePath.getFileName().toString()).matches();
+        }
+        
+        /**
+         * Conditional GET: If-None-Match takes precedence over If-Modified-Since (RFC 9110)
+         */
+        private boolean notModified(HttpExchange exchange, FileMetadata metadata) {
+            String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+            if (ifNoneMatch != null) {
+                for (String tag : ifNoneMatch.split(",")) {
+                    String candidate = tag.trim();
+                    if (candidate.equals("*") || candidate.replaceFirst("^W/", "").equals(metadata.etag())) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            String ifModifiedSince = exchange.getRequestHeaders().getFirst("If-Modified-Since");
+            if (ifModifiedSince != null) {
+                try {
+                    long since = ZonedDateTime.parse(ifModifiedSince.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toEpochSecond();
+                    return TimeUnit.MILLISECONDS.toSeconds(metadata.lastModifiedMillis()) <= since;
+                } catch (DateTimeParseException e) {
+                    return false;
+                }
+            }
+            return false;
+        }
+        
+        /**
+         * If-Range: honour the Range header only while the client's copy is still current
+         */
+        private boolean ifRangeMatches(String ifRange, FileMetadata metadata) {
+            if (ifRange == null) {
+                return true;
+            }
+            String value = ifRange.trim();
+            if (value.startsWith("\"")) {
+                return value.equals(metadata.etag());
+            }
+            if (value.startsWith("W/")) {
+                return false;
+            }
+            try {
+                long since = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toEpochSecond();
+                return since == TimeUnit.MILLISECONDS.toSeconds(metadata.lastModifiedMillis());
+            } catch (DateTimeParseException e) {
+                return false;
+            }
+        }
+        
+        /**
+         * Send several ranges as one multipart/byteranges body
+         */
+        private void sendMultipart(HttpExchange exchange, FileChannel file, List<ByteRange> ranges,
+                                   long size, String mimeType) throws IOException {
+            String boundary = "BYTERANGES_" + Long.toHexString(System.nanoTime());
+            List<byte[]> partHeaders = new ArrayList<>();
+            long contentLength = 0;
+            for (ByteRange range : ranges) {
+                byte[] header = ("\r\n--" + boundary + "\r\nContent-Type: " + mimeType + "\r\nContent-Range: "
+                    + range.contentRange(size) + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+                partHeaders.add(header);
+                contentLength += header.length + range.length();
+            }
+            byte[] closing = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+            contentLength += closing.length;
+            
+            exchange.getResponseHeaders().set("Content-Type", "multipart/byteranges; boundary=" + boundary);
+            exchange.sendResponseHeaders(206, contentLength);
+            OutputStream out = exchange.getResponseBody();
+            for (int i = 0; i < ranges.size(); i++) {
+                out.write(partHeaders.get(i));
+                sendRegion(file, ranges.get(i).start(), ranges.get(i).length(), out);
+            }
+            out.write(closing);
+        }
+        
+        /**
+         * Stream part of a file to the response with FileChannel.transferTo.
+         * HttpExchange only offers an OutputStream, so the target is a stream-wrapping channel
+         * and the JDK copies through a small heap buffer, just as Files.copy would; sendfile
+         * is not reachable here. What this adds is sending an arbitrary region (range requests)
+         * without reading the bytes before it, and detecting a file that shrank mid-send.
+         * 
+         * @param file Open file
+         * @param position First byte to send
+         * @param length Number of bytes to send
+         * @param out Response body
+         * @throws IOException If the file cannot be read or the client disconnects
+         */
+        private void sendRegion(FileChannel file, long position, long length, OutputStream out) throws IOException {
+            WritableByteChannel target = Channels.newChannel(out);
+            long sent = 0;
+            while (sent < length) {
+                long transferred = file.transferTo(position + sent, length - sent, target);
+                if (transferred <= 0) {
+                    throw new EOFException("File ended after " + sent + " of " + length + " bytes");
+                }
+                sent += transferred;
+            }
+        }
+        
         /**
          * Get the MIME type for a file
          * 
@@ -151,6 +994,284 @@ public class SimpleHttpServer {
         }
     }
     
+    /**
+     * What the server knows about a file without opening it
+     * 
+     * @param size Size in bytes
+     * @param lastModifiedMillis Modification time
+     * @param etag Strong validator derived from size and modification time
+     * @param lastModified Modification time as an HTTP date
+     * @param checkedAtNanos When the attributes were read
+     */
+    record FileMetadata(long size, long lastModifiedMillis, String etag, String lastModified, long checkedAtNanos) {
+        static FileMetadata of(BasicFileAttributes attributes) {
+            long millis = attributes.lastModifiedTime().toMillis();
+            return new FileMetadata(attributes.size(), millis,
+                "\"" + Long.toHexString(attributes.size()) + "-" + Long.toHexString(millis) + "\"",
+                DateTimeFormatter.RFC_1123_DATE_TIME.format(Instant.ofEpochMilli(millis).atZone(ZoneOffset.UTC)),
+                System.nanoTime());
+        }
+
+        /**
+         * Metadata of an encoded representation: same file, distinct strong ETag
+         */
+        FileMetadata withEncoding(String encoding) {
+            return new FileMetadata(size, lastModifiedMillis,
+                etag.substring(0, etag.length() - 1) + "-" + encoding + "\"", lastModified, checkedAtNanos);
+        }
+    }
+    
+    /**
+     * Small LRU cache of file metadata. Entries are trusted for a short time, so a burst
+     * of requests for the same report assets costs one attribute lookup; a file that is
+     * rewritten is picked up after at most that time.
+     */
+    static class MetadataCache {
+        private final Map<Path, FileMetadata> entries;
+        private final long maxAgeNanos;
+
+        MetadataCache(int maxEntries, long maxAgeNanos) {
+            this.maxAgeNanos = maxAgeNanos;
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Path, FileMetadata> eldest) {
+                    return size() > maxEntries;
+                }
+            };
+        }
+
+        /**
+         * Metadata of a regular file
+         * 
+         * @return Cached or freshly read metadata, or null if the path is missing or a directory
+         */
+        FileMetadata get(Path path) {
+            FileMetadata cached;
+            synchronized (entries) {
+                cached = entries.get(path);
+            }
+            if (cached != null && System.nanoTime() - cached.checkedAtNanos() < maxAgeNanos) {
+                // A negative size records absence, so probing for optional files stays cheap
+                return cached.size() < 0 ? null : cached;
+            }
+            return refresh(path);
+        }
+
+        FileMetadata refresh(Path path) {
+            FileMetadata metadata;
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                metadata = attributes.isRegularFile() ? FileMetadata.of(attributes) : null;
+            } catch (IOException e) {
+                metadata = null;
+            }
+            synchronized (entries) {
+                entries.put(path, metadata == null
+                    ? new FileMetadata(-1, 0, "", "", System.nanoTime()) : metadata);
+            }
+            return metadata;
+        }
+    }
+    
+    /**
+     * LRU cache of small files held in direct (off-heap) buffers, bounded by entry count and
+     * total size. An entry is served only while the file's size and modification time still
+     * match; files above the size limit are never cached and take the streaming path.
+     */
+    static class FileCache {
+        private record Entry(ByteBuffer content, long lastModifiedMillis) {
+        }
+
+        private final int maxEntries;
+        private final long maxBytes;
+        private final long maxFileSize;
+        private final LinkedHashMap<Path, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private long currentBytes;
+
+        FileCache(int maxEntries, long maxBytes, long maxFileSize) {
+            this.maxEntries = maxEntries;
+            this.maxBytes = maxBytes;
+            this.maxFileSize = maxFileSize;
+        }
+
+        /**
+         * Contents of a small file
+         * 
+         * @param path File to read
+         * @param metadata Current size and modification time of the file
+         * @return A read-only buffer positioned at the start of the content, or null if the file is too large
+         */
+        ByteBuffer get(Path path, FileMetadata metadata) throws IOException {
+            if (metadata.size() > maxFileSize) {
+                return null;
+            }
+            synchronized (this) {
+                Entry entry = entries.get(path);
+                if (entry != null && entry.content().capacity() == metadata.size()
+                        && entry.lastModifiedMillis() == metadata.lastModifiedMillis()) {
+                    hits.increment();
+                    return entry.content().duplicate();
+                }
+            }
+            misses.increment();
+            
+            ByteBuffer content = ByteBuffer.allocateDirect((int) metadata.size());
+            try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+                while (content.hasRemaining() && file.read(content) >= 0) {
+                    // keep reading until the buffer is full or the file ends
+                }
+            }
+            if (content.hasRemaining()) {
+                // The file shrank while we read it: leave it to the streaming path
+                return null;
+            }
+            content.flip();
+            ByteBuffer readOnly = content.asReadOnlyBuffer();
+            put(path, new Entry(readOnly, metadata.lastModifiedMillis()));
+            return readOnly.duplicate();
+        }
+
+        private synchronized void put(Path path, Entry entry) {
+            Entry previous = entries.put(path, entry);
+            if (previous != null) {
+                currentBytes -= previous.content().capacity();
+            }
+            currentBytes += entry.content().capacity();
+            Iterator<Entry> eldest = entries.values().iterator();
+            while ((entries.size() > maxEntries || currentBytes > maxBytes) && eldest.hasNext()) {
+                currentBytes -= eldest.next().content().capacity();
+                eldest.remove();
+            }
+        }
+
+        long getHits() {
+            return hits.sum();
+        }
+
+        long getMisses() {
+            return misses.sum();
+        }
+
+        synchronized long getBytes() {
+            return currentBytes;
+        }
+    }
+    
+    /**
+     * LRU cache of gzip-compressed small files, bounded by total compressed size.
+     * Entries are keyed by path and ETag, so a rewritten file is compressed again.
+     */
+    static class CompressedCache {
+        private final long maxBytes;
+        private final LinkedHashMap<Path, Map.Entry<String, byte[]>> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private long currentBytes;
+
+        CompressedCache(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        synchronized byte[] get(Path path, String etag) {
+            Map.Entry<String, byte[]> entry = entries.get(path);
+            return entry != null && entry.getKey().equals(etag) ? entry.getValue() : null;
+        }
+
+        synchronized void put(Path path, String etag, byte[] compressed) {
+            Map.Entry<String, byte[]> previous = entries.put(path, Map.entry(etag, compressed));
+            if (previous != null) {
+                currentBytes -= previous.getValue().length;
+            }
+            currentBytes += compressed.length;
+            Iterator<Map.Entry<String, byte[]>> eldest = entries.values().iterator();
+            while (currentBytes > maxBytes && eldest.hasNext()) {
+                currentBytes -= eldest.next().getValue().length;
+                eldest.remove();
+            }
+        }
+    }
+    
+    /**
+     * One satisfiable byte range of a file, inclusive at both ends
+     */
+    record ByteRange(long start, long end) {
+        // More ranges than this in one request is treated as abuse and answered with the full file
+        private static final int MAX_RANGES = 32;
+
+        long length() {
+            return end - start + 1;
+        }
+
+        String contentRange(long size) {
+            return "bytes " + start + "-" + end + "/" + size;
+        }
+
+        /**
+         * Parse a Range header (RFC 9110), merging overlapping and adjacent ranges
+         * 
+         * @param header Range header value
+         * @param size File size
+         * @return Satisfiable ranges in file order; empty if none can be satisfied (416),
+         *         null if the header is malformed or unsupported and the full file should be sent
+         */
+        static List<ByteRange> parse(String header, long size) {
+            String value = header.trim();
+            if (!value.regionMatches(true, 0, "bytes=", 0, 6)) {
+                return null;
+            }
+            String[] specs = value.substring(6).split(",");
+            if (specs.length > MAX_RANGES) {
+                return null;
+            }
+            List<ByteRange> ranges = new ArrayList<>();
+            for (String spec : specs) {
+                String range = spec.trim();
+                int dash = range.indexOf('-');
+                if (dash < 0) {
+                    return null;
+                }
+                try {
+                    String first = range.substring(0, dash).trim();
+                    String last = range.substring(dash + 1).trim();
+                    long start;
+                    long end;
+                    if (first.isEmpty()) {
+                        // Suffix range: the last N bytes
+                        long suffix = Long.parseLong(last);
+                        if (suffix == 0) {
+                            continue;
+                        }
+                        start = Math.max(0, size - suffix);
+                        end = size - 1;
+                    } else {
+                        start = Long.parseLong(first);
+                        end = last.isEmpty() ? size - 1 : Math.min(Long.parseLong(last), size - 1);
+                        if (!last.isEmpty() && Long.parseLong(last) < start) {
+                            return null;
+                        }
+                    }
+                    if (start < size && start <= end) {
+                        ranges.add(new ByteRange(start, end));
+                    }
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+
+            ranges.sort(Comparator.comparingLong(ByteRange::start));
+            List<ByteRange> merged = new ArrayList<>();
+            for (ByteRange range : ranges) {
+                ByteRange previous = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+                if (previous != null && range.start() <= previous.end() + 1) {
+                    merged.set(merged.size() - 1, new ByteRange(previous.start(), Math.max(previous.end(), range.end())));
+                } else {
+                    merged.add(range);
+                }
+            }
+            return merged;
+        }
+    }
+    
     /**
      * Main method to start the server
      * 
@@ -158,8 +1279,13 @@ public class SimpleHttpServer {
      */
     public static void main(String[] args) {
         try {
-            // Start server on port 8000 serving from the current directory
-            SimpleHttpServer server = new SimpleHttpServer(8000, ".");
+            // Start server on port 8000 serving from the current directory (override with -Dserver.* properties)
+            SimpleHttpServer server = new SimpleHttpServer(Integer.getInteger("server.port", 8000),
+                    System.getProperty("server.root", "."))
+                .setMaxThreads(Integer.getInteger("server.threads", 0))
+                .setBacklog(Integer.getInteger("server.backlog", 128))
+                .setMaxRequestsPerClient(Integer.getInteger("server.perClientLimit", 16))
+                .enableArtifactIndex("reports", "test-results");
             server.start();
             
             System.out.println("Server started. Press Ctrl+C to stop.");
@@ -0,0 +1,261 @@
+package com.qa.opencart.utils;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Lazy TestNG data provider over large JSON test data files.
+ * Rows are read one at a time with Jackson's streaming parser, so memory stays
+ * constant however many rows the file holds. Supports a top-level JSON array,
+ * an array under a field of a top-level object, and JSON lines (.jsonl/.ndjson).
+ *
+ * Usage from a {@code @DataProvider} returning {@code Iterator<Object[]>}:
+ * <pre>
+ * return StreamingDataProvider.from("search-terms.jsonl")
+ *     .columns("term", "expectedTitle")
+ *     .shardFromSystemProperties()
+ *     .iterator();
+ * </pre>
+ */
+public class StreamingDataProvider {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final String TEST_DATA_DIR = "./src/test/resources/testdata/";
+
+    private final Path file;
+    private String arrayField;
+    private Class<?> rowType;
+    private String[] columns;
+    private double sampleRate = 1.0;
+    private long sampleSeed;
+    private int shardIndex = 0;
+    private int shardCount = 1;
+    private long limit = Long.MAX_VALUE;
+
+    private StreamingDataProvider(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Stream rows from a file in the test data directory
+     *
+     * @param fileName File name including its extension (.json, .jsonl or .ndjson)
+     */
+    public static StreamingDataProvider from(String fileName) {
+        return new StreamingDataProvider(Paths.get(TEST_DATA_DIR + fileName));
+    }
+
+    /**
+     * Stream rows from an arbitrary file
+     */
+    public static StreamingDataProvider from(Path file) {
+        return new StreamingDataProvider(file);
+    }
+
+    /**
+     * Read the rows from an array under this field of the top-level object (JSON files only)
+     */
+    public StreamingDataProvider arrayField(String fieldName) {
+        this.arrayField = fieldName;
+        return this;
+    }
+
+    /**
+     * Bind each row to this type and pass it as the single test parameter
+     */
+    public StreamingDataProvider as(Class<?> rowType) {
+        this.rowType = rowType;
+        return this;
+    }
+
+    /**
+     * Pass these fields of each row object as the test parameters, in order
+     */
+    public StreamingDataProvider columns(String... columns) {
+        this.columns = columns;
+        return this;
+    }
+
+    /**
+     * Keep a deterministic pseudo-random fraction of the rows.
+     * The same seed always selects the same rows, whatever the sharding.
+     *
+     * @param rate Fraction of rows to keep, between 0 and 1
+     * @param seed Seed of the selection
+     */
+    public StreamingDataProvider sample(double rate, long seed) {
+        if (rate < 0 || rate > 1) {
+            throw new IllegalArgumentException("Sample rate must be between 0 and 1: " + rate);
+        }
+        this.sampleRate = rate;
+        this.sampleSeed = seed;
+        return this;
+    }
+
+    /**
+     * Keep only rows whose index modulo shardCount equals shardIndex
+     */
+    public StreamingDataProvider shard(int shardIndex, int shardCount) {
+        if (shardCount < 1 || shardIndex < 0 || shardIndex >= shardCount) {
+            throw new IllegalArgumentException("Invalid shard " + shardIndex + " of " + shardCount);
+        }
+        this.shardIndex = shardIndex;
+        this.shardCount = shardCount;
+        return this;
+    }
+
+    /**
+     * Shard from the -Dshard.index / -Dshard.count system properties (no sharding when unset)
+     */
+    public StreamingDataProvider shardFromSystemProperties() {
+        return shard(Integer.getInteger("shard.index", 0), Integer.getInteger("shard.count", 1));
+    }
+
+    /**
+     * Stop after this many rows have been emitted
+     */
+    public StreamingDataProvider limit(long maxRows) {
+        this.limit = maxRows;
+        return this;
+    }
+
+    /**
+     * Lazy iterator of test parameter rows. The file is opened on first use and closed once exhausted.
+     */
+    public Iterator<Object[]> iterator() {
+        return new RowIterator();
+    }
+
+    private boolean isJsonLines() {
+        String name = file.getFileName().toString().toLowerCase();
+        return name.endsWith(".jsonl") || name.endsWith(".ndjson");
+    }
+
+    private boolean isSelected(long rowIndex) {
+        if (rowIndex % shardCount != shardIndex) {
+            return false;
+        }
+        if (sampleRate >= 1.0) {
+            return true;
+        }
+        // SplitMix64 of (seed, index): stable per row, independent of the other rows
+        long z = sampleSeed + (rowIndex + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        return (z >>> 11) * 0x1.0p-53 < sampleRate;
+    }
+
+    private Object[] toRow(JsonNode node) throws IOException {
+        if (rowType != null) {
+            return new Object[] { objectMapper.treeToValue(node, rowType) };
+        }
+        List<Object> values = new ArrayList<>();
+        if (columns != null) {
+            for (String column : columns) {
+                values.add(objectMapper.treeToValue(node.get(column), Object.class));
+            }
+        } else {
+            for (JsonNode value : node) {
+                values.add(objectMapper.treeToValue(value, Object.class));
+            }
+        }
+        return values.toArray();
+    }
+
+    private class RowIterator implements Iterator<Object[]> {
+        private JsonParser parser;
+        private Object[] next;
+        private boolean finished;
+        private long rowIndex;
+        private long emitted;
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && !finished) {
+                next = readNext();
+            }
+            return next != null;
+        }
+
+        @Override
+        public Object[] next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Object[] row = next;
+            next = null;
+            return row;
+        }
+
+        private Object[] readNext() {
+            try {
+                if (parser == null) {
+                    open();
+                }
+                while (!finished && emitted < limit) {
+                    JsonToken token = parser.nextToken();
+                    if (token == null || token == JsonToken.END_ARRAY) {
+                        break;
+                    }
+                    if (isSelected(rowIndex++)) {
+                        JsonNode node = objectMapper.readTree(parser);
+                        emitted++;
+                        return toRow(node);
+                    }
+                    parser.skipChildren();
+                }
+                close();
+                return null;
+            } catch (IOException e) {
+                close();
+                throw new RuntimeException("Failed to stream test data file: " + file, e);
+            }
+        }
+
+        private void open() throws IOException {
+            parser = objectMapper.getFactory().createParser(Files.newInputStream(file));
+            if (isJsonLines()) {
+                return;
+            }
+            JsonToken token = parser.nextToken();
+            if (arrayField != null) {
+                if (token != JsonToken.START_OBJECT) {
+                    throw new IOException("Expected a JSON object holding field '" + arrayField + "'");
+                }
+                while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+                    String name = parser.getCurrentName();
+                    token = parser.nextToken();
+                    if (name.equals(arrayField)) {
+                        break;
+                    }
+                    parser.skipChildren();
+                }
+            }
+            if (token != JsonToken.START_ARRAY) {
+                throw new IOException("Expected a JSON array of rows" + (arrayField != null ? " in field '" + arrayField + "'" : ""));
+            }
+        }
+
+        private void close() {
+            finished = true;
+            if (parser != null) {
+                try {
+                    parser.close();
+                } catch (IOException e) {
+                    System.err.println("Failed to close test data file: " + e.getMessage());
+                }
+            }
+        }
+    }
+}
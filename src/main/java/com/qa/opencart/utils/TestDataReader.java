@@ -1,33 +1,162 @@
 package com.qa.opencart.utils;
 
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.qa.opencart.data.LoginData;
 
-import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+/**
+ * Reads JSON test data files.
+ * Parsed files are cached per file and target type and only re-read when the
+ * file's modification time or size changes, so data providers can call this once
+ * per row and per thread without re-parsing. Cached values are shared between
+ * threads, so parsed maps and lists are frozen before they are cached; other typed
+ * targets should be immutable (records such as {@link LoginData}).
+ */
 public class TestDataReader {
     private static final ObjectMapper objectMapper = new ObjectMapper();
     private static final String TEST_DATA_DIR = "./src/test/resources/testdata/";
+    private static final JavaType MAP_TYPE = objectMapper.getTypeFactory()
+        .constructMapType(Map.class, String.class, Object.class);
+
+    private static final Map<CacheKey, CachedValue> cache = new ConcurrentHashMap<>();
+
+    // Typed bindings that preloadAll() parses alongside the untyped form
+    private static final Map<String, JavaType> bindings = new ConcurrentHashMap<>();
+
+    static {
+        registerBinding("login-data", LoginData.class);
+    }
+
+    private record CacheKey(Path file, JavaType type) {
+    }
+
+    private record CachedValue(FileTime modified, long size, Object value) {
+        boolean isCurrent(BasicFileAttributes attributes) {
+            return modified.equals(attributes.lastModifiedTime()) && size == attributes.size();
+        }
+    }
 
     public static Map<String, Object> getTestData(String fileName) {
-        try {
-            return objectMapper.readValue(
-                new File(TEST_DATA_DIR + fileName + ".json"),
-                new TypeReference<HashMap<String, Object>>() {}
-            );
+        return read(fileName, MAP_TYPE);
+    }
+
+    public static <T> T getTestData(String fileName, Class<T> valueType) {
+        return read(fileName, objectMapper.getTypeFactory().constructType(valueType));
+    }
+
+    public static <T> T getTestData(String fileName, TypeReference<T> valueTypeRef) {
+        return read(fileName, objectMapper.getTypeFactory().constructType(valueTypeRef));
+    }
+
+    /**
+     * Register the typed target a data file should be pre-bound to by {@link #preloadAll()}
+     *
+     * @param fileName Data file name without the .json extension
+     * @param valueType Immutable type to bind the file to
+     */
+    public static void registerBinding(String fileName, Class<?> valueType) {
+        bindings.put(fileName, objectMapper.getTypeFactory().constructType(valueType));
+    }
+
+    /**
+     * Parse every .json file in the test data directory in parallel, together with
+     * its registered typed binding, so the first data provider call hits the cache
+     *
+     * @return Number of files preloaded
+     */
+    public static int preloadAll() {
+        List<String> fileNames;
+        try (Stream<Path> files = Files.list(Paths.get(TEST_DATA_DIR))) {
+            fileNames = files
+                .map(path -> path.getFileName().toString())
+                .filter(name -> name.endsWith(".json"))
+                .map(name -> name.substring(0, name.length() - ".json".length()))
+                .collect(Collectors.toList());
         } catch (IOException e) {
+            throw new RuntimeException("Failed to list test data directory: " + TEST_DATA_DIR, e);
+        }
+
+        fileNames.parallelStream().forEach(fileName -> {
+            read(fileName, MAP_TYPE);
+            JavaType binding = bindings.get(fileName);
+            if (binding != null) {
+                read(fileName, binding);
+            }
+        });
+        System.out.println("Preloaded " + fileNames.size() + " test data file(s) from " + TEST_DATA_DIR);
+        return fileNames.size();
+    }
+
+    /**
+     * Drop every cached file
+     */
+    public static void clearCache() {
+        cache.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T read(String fileName, JavaType type) {
+        Path file = Paths.get(TEST_DATA_DIR + fileName + ".json").toAbsolutePath().normalize();
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            CacheKey key = new CacheKey(file, type);
+            CachedValue cached = cache.get(key);
+            if (cached == null || !cached.isCurrent(attributes)) {
+                cached = cache.compute(key, (k, existing) ->
+                    existing != null && existing.isCurrent(attributes) ? existing : parse(file, type, attributes));
+            }
+            return (T) cached.value();
+        } catch (IOException | UncheckedIOException e) {
             throw new RuntimeException("Failed to read test data file: " + fileName, e);
         }
     }
 
-    public static <T> T getTestData(String fileName, Class<T> valueType) {
+    private static CachedValue parse(Path file, JavaType type, BasicFileAttributes attributes) {
         try {
-            return objectMapper.readValue(new File(TEST_DATA_DIR + fileName + ".json"), valueType);
+            Object value = objectMapper.readValue(file.toFile(), type);
+            // Freeze whenever the frozen form still is the requested type (not for e.g. a concrete HashMap target)
+            Object frozen = unmodifiable(value);
+            if (type.getRawClass().isInstance(frozen)) {
+                value = frozen;
+            }
+            return new CachedValue(attributes.lastModifiedTime(), attributes.size(), value);
         } catch (IOException e) {
-            throw new RuntimeException("Failed to read test data file: " + fileName, e);
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Recursively wrap parsed maps and lists so the shared cached value cannot be modified
+     */
+    @SuppressWarnings("unchecked")
+    private static Object unmodifiable(Object value) {
+        if (value instanceof Map) {
+            Map<String, Object> copy = new LinkedHashMap<>();
+            ((Map<String, Object>) value).forEach((k, v) -> copy.put(k, unmodifiable(v)));
+            return Collections.unmodifiableMap(copy);
+        }
+        if (value instanceof List) {
+            List<Object> copy = new ArrayList<>();
+            ((List<Object>) value).forEach(v -> copy.add(unmodifiable(v)));
+            return Collections.unmodifiableList(copy);
         }
+        return value;
     }
-} 
\ No newline at end of file
+}
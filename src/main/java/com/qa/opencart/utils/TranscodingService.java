@@ -0,0 +1,231 @@
+package com.qa.opencart.utils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Background FFmpeg transcoding for test videos.
+ *
+ * Jobs run on a bounded pool of daemon workers (one per core), so test threads only
+ * submit and never wait. The FFmpeg probe runs once per JVM. FFmpeg's output goes to
+ * a log file rather than a pipe, so a chatty process can never block on a full pipe;
+ * the log is kept only when the job fails. Every job has a timeout, writes to a
+ * temporary file and is moved into place when complete, so readers never see a
+ * partial MP4. Submitting the same input and output again while a job is queued or
+ * running returns the same future.
+ */
+public class TranscodingService {
+    private static final TranscodingService shared = new TranscodingService(Runtime.getRuntime().availableProcessors(), 64);
+
+    private final ThreadPoolExecutor workers;
+    private final Map<String, CompletableFuture<Path>> jobs = new ConcurrentHashMap<>();
+    private final Set<Process> running = ConcurrentHashMap.newKeySet();
+    private volatile Boolean ffmpegAvailable;
+    private volatile String preset = "veryfast";
+    private volatile int crf = 28;
+    private volatile Duration timeout = Duration.ofMinutes(2);
+
+    /**
+     * Create a service
+     *
+     * @param workerCount Concurrent FFmpeg processes
+     * @param queueCapacity Jobs that may wait for a worker; further submissions fail
+     */
+    public TranscodingService(int workerCount, int queueCapacity) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 30, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "transcoder-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            });
+        this.workers.allowCoreThreadTimeOut(true);
+    }
+
+    public static TranscodingService shared() {
+        return shared;
+    }
+
+    /**
+     * Apply the video.transcode* settings from config.properties
+     */
+    public TranscodingService configure(Properties prop) {
+        preset = prop.getProperty("video.transcodePreset", preset).trim();
+        crf = Integer.parseInt(prop.getProperty("video.transcodeCrf", String.valueOf(crf)).trim());
+        timeout = Duration.ofSeconds(Long.parseLong(
+            prop.getProperty("video.transcodeTimeoutSeconds", String.valueOf(timeout.toSeconds())).trim()));
+        return this;
+    }
+
+    /**
+     * Whether FFmpeg can be run; probed once and then cached
+     */
+    public boolean isAvailable() {
+        Boolean available = ffmpegAvailable;
+        if (available == null) {
+            synchronized (this) {
+                if (ffmpegAvailable == null) {
+                    ffmpegAvailable = probe();
+                    System.out.println("FFmpeg " + (ffmpegAvailable ? "is" : "is not") + " available for video transcoding");
+                }
+                available = ffmpegAvailable;
+            }
+        }
+        return available;
+    }
+
+    /**
+     * Queue a WebM to MP4 (H.264, fast start) transcode
+     *
+     * @param input Source video
+     * @param output Target MP4
+     * @return Future completed with the output path; failed if FFmpeg is missing, fails or times out
+     */
+    public CompletableFuture<Path> toMp4(Path input, Path output) {
+        List<String> arguments = List.of(
+            "-c:v", "libx264", "-preset", preset, "-crf", String.valueOf(crf), "-pix_fmt", "yuv420p",
+            "-movflags", "+faststart", "-c:a", "aac", "-b:a", "128k");
+        return submit(input, output, arguments);
+    }
+
+    /**
+     * Queue an FFmpeg job; identical jobs already queued or running share one future
+     *
+     * @param input Source file
+     * @param output Target file; its extension selects the container
+     * @param arguments FFmpeg arguments between the input and the output
+     */
+    public CompletableFuture<Path> submit(Path input, Path output, List<String> arguments) {
+        return submit(List.of(), input, output, arguments);
+    }
+
+    /**
+     * Queue an FFmpeg job with input options, e.g. {@code -skip_frame nokey} to decode keyframes only
+     *
+     * @param inputArguments FFmpeg arguments before the input
+     * @param input Source file
+     * @param output Target file; its extension selects the container
+     * @param arguments FFmpeg arguments between the input and the output
+     */
+    public CompletableFuture<Path> submit(List<String> inputArguments, Path input, Path output, List<String> arguments) {
+        String key = inputArguments + " " + input.toAbsolutePath().normalize() + " -> " + output.toAbsolutePath().normalize() + " " + arguments;
+        CompletableFuture<Path> created = new CompletableFuture<>();
+        CompletableFuture<Path> existing = jobs.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+        created.whenComplete((path, error) -> jobs.remove(key, created));
+
+        if (!isAvailable()) {
+            created.completeExceptionally(new IllegalStateException("FFmpeg is not installed"));
+            return created;
+        }
+        try {
+            workers.execute(() -> {
+                try {
+                    created.complete(run(inputArguments, input, output, arguments));
+                } catch (Exception e) {
+                    created.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            created.completeExceptionally(new IllegalStateException("Transcoding queue is full", e));
+        }
+        return created;
+    }
+
+    /**
+     * Jobs queued or running
+     */
+    public int getPendingJobs() {
+        return jobs.size();
+    }
+
+    /**
+     * Stop accepting jobs and kill running FFmpeg processes; their partial outputs are deleted
+     */
+    public void shutdownNow() {
+        workers.shutdownNow();
+        running.forEach(Process::destroyForcibly);
+    }
+
+    private Path run(List<String> inputArguments, Path input, Path output, List<String> arguments) throws IOException, InterruptedException, TimeoutException {
+        String fileName = output.getFileName().toString();
+        int dot = fileName.lastIndexOf('.');
+        Path partial = output.resolveSibling(fileName.substring(0, dot) + ".part" + fileName.substring(dot));
+        Path log = output.resolveSibling(fileName + ".ffmpeg.log");
+
+        List<String> command = new ArrayList<>(List.of("ffmpeg", "-y", "-nostdin", "-hide_banner", "-loglevel", "error"));
+        command.addAll(inputArguments);
+        command.add("-i");
+        command.add(input.toString());
+        command.addAll(arguments);
+        command.add(partial.toString());
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+            .redirectErrorStream(true)
+            .redirectOutput(log.toFile())
+            .start();
+        running.add(process);
+        try {
+            if (!process.waitFor(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                process.destroyForcibly();
+                Files.deleteIfExists(partial);
+                throw new TimeoutException("FFmpeg did not finish " + input.getFileName() + " within " + timeout.toSeconds() + " s");
+            }
+        } catch (InterruptedException e) {
+            // Shut down or cancelled: the process would otherwise outlive the JVM and keep writing
+            process.destroyForcibly();
+            Files.deleteIfExists(partial);
+            throw e;
+        } finally {
+            running.remove(process);
+        }
+        if (process.exitValue() != 0) {
+            Files.deleteIfExists(partial);
+            throw new IOException("FFmpeg failed with exit code " + process.exitValue() + " for " + input + ", see " + log);
+        }
+        Files.move(partial, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.deleteIfExists(log);
+        System.out.println("Transcoded " + input.getFileName() + " to " + output + " in "
+            + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+        return output;
+    }
+
+    private boolean probe() {
+        try {
+            Process process = new ProcessBuilder("ffmpeg", "-version")
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                return false;
+            }
+            return process.exitValue() == 0;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -1,49 +1,29 @@
 package com.qa.opencart.utils;
 
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Utility class for video operations and conversions
- * Note: This class provides suggestions for video conversion but actual conversion
- * requires external tools like FFmpeg that need to be installed separately
+ * Playwright records WebM, which is served and played as is. MP4 is only produced by a
+ * real FFmpeg transcode (installed separately), in the background or on first request
  */
 public class VideoConverter {
+    private static final int THUMBNAIL_HEIGHT = 90;
+    private static final int STRIP_FRAMES = 8;
 
-    /**
-     * Creates a copy of the video file with a .mp4 extension
-     * This doesn't actually convert the video, but helps with MIME type issues in some browsers
-     * 
-     * @param webmVideoPath Path to the WebM video file
-     * @return Path to the "MP4" file (just a renamed copy)
-     */
-    public static String createMp4Copy(String webmVideoPath) {
-        try {
-            if (webmVideoPath == null || !webmVideoPath.toLowerCase().endsWith(".webm")) {
-                return null;
-            }
-            
-            // Create the MP4 file path by replacing .webm with .mp4
-            String mp4VideoPath = webmVideoPath.substring(0, webmVideoPath.lastIndexOf(".")) + ".mp4";
-            
-            // Copy the WebM file to an MP4 file
-            Path source = Paths.get(webmVideoPath);
-            Path target = Paths.get(mp4VideoPath);
-            Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
-            
-            System.out.println("Created MP4 copy at: " + mp4VideoPath);
-            return mp4VideoPath;
-        } catch (IOException e) {
-            System.err.println("Error creating MP4 copy: " + e.getMessage());
-            e.printStackTrace();
-            return null;
-        }
-    }
-    
     /**
      * Suggests how to convert WebM to MP4 using FFmpeg
      * This method just prints the command, it doesn't perform the conversion
@@ -60,27 +40,37 @@ public class VideoConverter {
         
         System.out.println("\n====== FFmpeg Conversion Instructions ======");
         System.out.println("To convert WebM to MP4, install FFmpeg (https://ffmpeg.org/) and run:");
-        System.out.println("ffmpeg -i \"" + webmVideoPath + "\" -c:v libx264 -crf 23 -preset medium -c:a aac -b:a 128k \"" + mp4VideoPath + "\"");
+        System.out.println("ffmpeg -i \"" + webmVideoPath + "\" -c:v libx264 -crf 28 -preset veryfast -pix_fmt yuv420p -movflags +faststart -c:a aac -b:a 128k \"" + mp4VideoPath + "\"");
         System.out.println("==============================================\n");
     }
     
     /**
-     * Checks if FFmpeg is installed on the system
+     * Checks if FFmpeg is installed on the system (probed once per run)
      * 
      * @return true if FFmpeg is available, false otherwise
      */
     public static boolean isFFmpegAvailable() {
-        try {
-            Process process = Runtime.getRuntime().exec("ffmpeg -version");
-            int exitCode = process.waitFor();
-            return exitCode == 0;
-        } catch (Exception e) {
-            return false;
+        return TranscodingService.shared().isAvailable();
+    }
+    
+    /**
+     * Queues a WebM to MP4 conversion on the background transcoding pool
+     * Nothing waits for it: callers can chain on the future or ignore it
+     * 
+     * @param webmVideoPath Path to the WebM video file
+     * @return Future completed with the MP4 path; failed if FFmpeg is missing or the conversion fails
+     */
+    public static CompletableFuture<Path> convertInBackground(String webmVideoPath) {
+        if (webmVideoPath == null || !webmVideoPath.toLowerCase().endsWith(".webm")) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Not a WebM video: " + webmVideoPath));
         }
+        String mp4VideoPath = webmVideoPath.substring(0, webmVideoPath.lastIndexOf(".")) + ".mp4";
+        return TranscodingService.shared().toMp4(Paths.get(webmVideoPath), Paths.get(mp4VideoPath));
     }
     
     /**
-     * Attempts to convert WebM to MP4 using FFmpeg if available
+     * Converts WebM to MP4 using FFmpeg if available, waiting for the result
+     * Prefer {@link #convertInBackground(String)} from test code
      * 
      * @param webmVideoPath Path to the WebM video file
      * @return Path to the converted MP4 file or null if conversion failed
@@ -92,36 +82,97 @@ public class VideoConverter {
         }
         
         try {
-            // Create the MP4 file path by replacing .webm with .mp4
-            String mp4VideoPath = webmVideoPath.substring(0, webmVideoPath.lastIndexOf(".")) + ".mp4";
-            
-            // Build FFmpeg command
-            String[] command = {
-                "ffmpeg", 
-                "-i", webmVideoPath,
-                "-c:v", "libx264",
-                "-crf", "23",
-                "-preset", "medium",
-                "-c:a", "aac",
-                "-b:a", "128k",
-                mp4VideoPath
-            };
-            
-            // Execute the command
-            Process process = Runtime.getRuntime().exec(command);
-            int exitCode = process.waitFor();
-            
-            if (exitCode == 0) {
-                System.out.println("Successfully converted WebM to MP4: " + mp4VideoPath);
-                return mp4VideoPath;
-            } else {
-                System.err.println("FFmpeg conversion failed with exit code: " + exitCode);
-                return null;
-            }
-        } catch (Exception e) {
-            System.err.println("Error converting video: " + e.getMessage());
-            e.printStackTrace();
+            String mp4VideoPath = convertInBackground(webmVideoPath).join().toString();
+            System.out.println("Successfully converted WebM to MP4: " + mp4VideoPath);
+            return mp4VideoPath;
+        } catch (CompletionException e) {
+            System.err.println("Error converting video: " + e.getCause().getMessage());
             return null;
         }
     }
-} 
\ No newline at end of file
+    
+    /**
+     * Builds a compact strip of thumbnails for triaging a test without opening its video
+     * With FFmpeg, the strip is sampled evenly across the test's own window of the video
+     * (a class shares one recording, so the whole video would mostly show other tests);
+     * otherwise, or if that fails, it is made by downscaling the given screenshots
+     * 
+     * @param videoPath Path to the finished WebM video, or null
+     * @param startSeconds Offset of the test's start in the video
+     * @param durationSeconds Length of the test's window
+     * @param screenshotPaths Step screenshots in the order they were taken, used as the fallback
+     * @param stripPath Target JPEG
+     * @return Future completed with the strip path; failed if neither source produced an image
+     */
+    public static CompletableFuture<Path> createThumbnailStrip(String videoPath, double startSeconds, double durationSeconds,
+                                                               List<String> screenshotPaths, Path stripPath) {
+        try {
+            Files.createDirectories(stripPath.toAbsolutePath().getParent());
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        if (videoPath != null && new File(videoPath).isFile() && isFFmpegAvailable()) {
+            // Seek on the input so only the window is decoded, then take STRIP_FRAMES evenly spaced frames
+            double duration = Math.max(1, durationSeconds);
+            String window = String.format(Locale.ROOT, "%.3f", Math.max(0, startSeconds));
+            String length = String.format(Locale.ROOT, "%.3f", duration);
+            String rate = String.format(Locale.ROOT, "%d/%.3f", STRIP_FRAMES, duration);
+            return TranscodingService.shared()
+                .submit(List.of("-ss", window, "-t", length), Paths.get(videoPath), stripPath, List.of(
+                    "-an", "-vf", "fps=" + rate + ",scale=-2:" + THUMBNAIL_HEIGHT + ",tile=" + STRIP_FRAMES + "x1",
+                    "-frames:v", "1", "-update", "1", "-q:v", "5"))
+                .exceptionallyCompose(e -> CompletableFuture.supplyAsync(() -> composeStrip(screenshotPaths, stripPath)));
+        }
+        return CompletableFuture.supplyAsync(() -> composeStrip(screenshotPaths, stripPath));
+    }
+    
+    /**
+     * Pure-Java strip: up to STRIP_FRAMES screenshots, evenly sampled, scaled to THUMBNAIL_HEIGHT
+     */
+    private static Path composeStrip(List<String> screenshotPaths, Path stripPath) {
+        List<BufferedImage> thumbnails = new ArrayList<>();
+        int count = Math.min(STRIP_FRAMES, screenshotPaths.size());
+        for (int i = 0; i < count; i++) {
+            // Keep the first and last screenshots, sample the rest evenly
+            int index = count == 1 ? 0 : (int) Math.round((double) i * (screenshotPaths.size() - 1) / (count - 1));
+            try {
+                BufferedImage image = ImageIO.read(new File(screenshotPaths.get(index)));
+                if (image != null) {
+                    thumbnails.add(image);
+                }
+            } catch (IOException e) {
+                System.err.println("Skipping unreadable screenshot: " + screenshotPaths.get(index));
+            }
+        }
+        if (thumbnails.isEmpty()) {
+            throw new IllegalStateException("No video frames or screenshots to build a thumbnail strip from");
+        }
+        
+        int width = 0;
+        for (BufferedImage image : thumbnails) {
+            width += scaledWidth(image);
+        }
+        BufferedImage strip = new BufferedImage(width, THUMBNAIL_HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = strip.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            int x = 0;
+            for (BufferedImage image : thumbnails) {
+                graphics.drawImage(image, x, 0, scaledWidth(image), THUMBNAIL_HEIGHT, null);
+                x += scaledWidth(image);
+            }
+        } finally {
+            graphics.dispose();
+        }
+        try {
+            ImageIO.write(strip, "jpg", stripPath.toFile());
+            return stripPath;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write thumbnail strip " + stripPath, e);
+        }
+    }
+    
+    private static int scaledWidth(BufferedImage image) {
+        return Math.max(1, image.getWidth() * THUMBNAIL_HEIGHT / image.getHeight());
+    }
+}
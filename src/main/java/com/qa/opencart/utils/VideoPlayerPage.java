@@ -0,0 +1,132 @@
+package com.qa.opencart.utils;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The one video player page of the report (reports/video-players/player.html).
+ *
+ * The page is static: the video and test name come from the query string
+ * ({@code player.html?video=../videos/login_1715000000000.webm&test=login}), so it is written
+ * once per run instead of once per test. It offers the WebM first and the MP4 second,
+ * which the report server transcodes on first request (see {@link SimpleHttpServer}).
+ */
+public final class VideoPlayerPage {
+    public static final String FILE_NAME = "player.html";
+
+    static final String HTML = """
+        <!DOCTYPE html>
+        <html>
+        <head>
+            <title>Test Video</title>
+            <meta charset="UTF-8">
+            <meta name="viewport" content="width=device-width, initial-scale=1.0">
+            <style>
+                body { font-family: Arial, sans-serif; margin: 20px; background-color: #f5f5f5; }
+                h1 { color: #333; }
+                .video-container { margin: 20px 0; }
+                video { max-width: 100%; border: 1px solid #ddd; background: #000; }
+                .notes { margin-top: 20px; padding: 15px; background: #fff; border: 1px solid #ddd; border-radius: 4px; }
+                .download-btn { display: inline-block; padding: 10px 15px; background: #4CAF50; color: white; text-decoration: none; border-radius: 4px; margin-top: 10px; }
+                .download-btn:hover { background: #45a049; }
+                .tab { margin-left: 20px; }
+                .file-paths { font-size: 12px; color: #666; }
+                .error-message { color: red; display: none; padding: 10px; background: #ffeeee; border: 1px solid #ffcccc; margin-top: 10px; }
+            </style>
+        </head>
+        <body>
+            <h1 id="title">Test Video</h1>
+            <div class="video-container">
+                <video controls preload="metadata"></video>
+            </div>
+            <div class="error-message" id="errorMessage">
+                Video couldn't be loaded. If the report was opened from disk, browser security restrictions may block it; try the download button below or serve the reports with SimpleHttpServer.
+            </div>
+            <a id="download" download class="download-btn">Download Video</a>
+            <div class="notes">
+                <p><strong>Troubleshooting Video Playback:</strong></p>
+                <ol>
+                    <li><strong>Browser Security Issues</strong> - If you're seeing ERR_FILE_NOT_FOUND, it's likely due to browser security restrictions for local files</li>
+                    <li><strong>Use a Local Server</strong> - Open these files using a local web server instead of directly from the filesystem</li>
+                    <li><strong>Try a different browser</strong> - Chrome has the best WebM support</li>
+                    <li><strong>Download and play locally</strong> - Use the Download button above</li>
+                    <li><strong>Use VLC Media Player</strong> - <a href="https://www.videolan.org/vlc/" target="_blank">Download VLC</a> to play WebM files</li>
+                </ol>
+                <p><strong>Video Information:</strong></p>
+                <p class="tab">Test Name: <span id="testName"></span></p>
+                <p class="tab file-paths">Path: <span id="videoPath"></span></p>
+            </div>
+            <script>
+                const params = new URLSearchParams(location.search);
+                const video = params.get('video') || '';
+                const test = params.get('test') || '';
+                document.title = 'Test Video: ' + test;
+                document.getElementById('title').textContent = 'Test Video: ' + test;
+                document.getElementById('testName').textContent = test;
+                document.getElementById('videoPath').textContent = video;
+
+                const player = document.querySelector('video');
+                const showError = () => document.getElementById('errorMessage').style.display = 'block';
+                // Relative paths only, so the page cannot be pointed at another site or a script URL
+                if (!video || video.includes(':') || video.startsWith('//')) {
+                    showError();
+                } else {
+                    const sources = [[video, 'video/webm']];
+                    if (video.toLowerCase().endsWith('.webm')) {
+                        // WebM first: browsers that can play it never request the MP4
+                        sources.push([video.slice(0, -5) + '.mp4', 'video/mp4']);
+                    }
+                    sources.forEach(([src, type], index) => {
+                        const source = document.createElement('source');
+                        source.src = src;
+                        source.type = type;
+                        if (index === sources.length - 1) {
+                            source.addEventListener('error', showError);
+                        }
+                        player.appendChild(source);
+                    });
+                    document.getElementById('download').href = video;
+                }
+            </script>
+        </body>
+        </html>
+        """;
+
+    private VideoPlayerPage() {
+    }
+
+    /**
+     * Write the player page into the directory unless it is already there and current
+     *
+     * @return Path of the page
+     */
+    public static Path install(Path directory) {
+        Path page = directory.resolve(FILE_NAME);
+        try {
+            if (Files.isRegularFile(page) && Files.size(page) == HTML.getBytes(StandardCharsets.UTF_8).length
+                    && Files.readString(page).equals(HTML)) {
+                return page;
+            }
+            Files.createDirectories(directory);
+            Files.writeString(page, HTML);
+            return page;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write video player page " + page, e);
+        }
+    }
+
+    /**
+     * Link to the player for one video
+     *
+     * @param playerPath Path of the page as seen from the linking document, e.g. video-players/player.html
+     * @param videoPath Path of the video relative to the player page
+     * @param testName Test name shown on the page
+     */
+    public static String link(String playerPath, String videoPath, String testName) {
+        return playerPath + "?video=" + URLEncoder.encode(videoPath, StandardCharsets.UTF_8)
+            + "&test=" + URLEncoder.encode(testName, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,70 @@
+package com.qa.opencart.utils;
+
+/**
+ * Per-thread bookkeeping for condition-based waits.
+ * Every event-driven wait records its timeout (the fixed sleep it stands in for)
+ * and how long it actually took, so each test can report the sleep time it saved.
+ */
+public class WaitStatistics {
+    private static final ThreadLocal<WaitStatistics> current = ThreadLocal.withInitial(WaitStatistics::new);
+
+    private int waits;
+    private int timedOut;
+    private long replacedSleepMs;
+    private long actualWaitMs;
+
+    /**
+     * Get the statistics of the current test thread
+     */
+    public static WaitStatistics current() {
+        return current.get();
+    }
+
+    /**
+     * Start a fresh tally for the current test thread
+     */
+    public static void reset() {
+        current.set(new WaitStatistics());
+    }
+
+    /**
+     * Record one condition-based wait
+     *
+     * @param replacedSleepMs Fixed sleep the wait replaces (its worst case)
+     * @param actualWaitMs Time the wait actually took
+     * @param conditionMet Whether the condition was met before the timeout
+     */
+    public void record(long replacedSleepMs, long actualWaitMs, boolean conditionMet) {
+        waits++;
+        if (!conditionMet) {
+            timedOut++;
+        }
+        this.replacedSleepMs += replacedSleepMs;
+        this.actualWaitMs += actualWaitMs;
+    }
+
+    public int getWaits() {
+        return waits;
+    }
+
+    public long getReplacedSleepMs() {
+        return replacedSleepMs;
+    }
+
+    public long getActualWaitMs() {
+        return actualWaitMs;
+    }
+
+    public long getSavedMs() {
+        return Math.max(0, replacedSleepMs - actualWaitMs);
+    }
+
+    /**
+     * One-line summary suitable for the test report
+     */
+    public String summary() {
+        return "Event-driven waits: " + waits + " wait(s) took " + actualWaitMs + " ms instead of "
+            + replacedSleepMs + " ms of fixed sleeps (saved " + getSavedMs() + " ms, "
+            + timedOut + " ran to timeout)";
+    }
+}
@@ -3,12 +3,15 @@ package com.qa.opencart.tests;
 import com.microsoft.playwright.Locator;
 import com.microsoft.playwright.options.LoadState;
 import com.microsoft.playwright.options.WaitForSelectorState;
+import com.qa.opencart.pages.AppIdleDetector;
+import com.qa.opencart.pages.BasePage;
 import org.testng.Assert;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import java.time.Duration;
+import java.util.function.Predicate;
 
 /**
  * Test class for Banner Solutions website (https://www.bannersolutions.com/)
@@ -20,27 +23,34 @@ public class BannerSolutionsTest extends BaseTest {
     private static final int DEFAULT_TIMEOUT = 10000; // 10 seconds
     private static final int NAVIGATION_TIMEOUT = 30000; // 30 seconds
     private static final int ANIMATION_TIMEOUT = 1000; // 1 second
+    private static final int CART_UPDATE_TIMEOUT = 2000; // 2 seconds
+    
+    private static final String HOMEPAGE_URL = "https://www.bannersolutions.com/";
+    
+    // Any of the cart count indicators used across the Banner Solutions pages
+    private static final String CART_COUNT_SELECTOR = ".cart-count, .cart-quantity, .cart-items-count, "
+        + ".mini-cart-count, .cart-icon .badge, [data-testid='cart-count']";
+    
+    // Responses of the storefront's cart endpoints (add, update, mini cart refresh)
+    private static final Predicate<String> CART_RESPONSE = url -> url.toLowerCase().contains("cart");
+    
+    // Event-driven waits (animations, cart updates) for pages without a dedicated page object
+    private BasePage bannerPage;
+    
+    // Waits for Banner Solutions' own requests only, ignoring third-party beacons
+    private AppIdleDetector appIdle;
     
     @BeforeClass
     public void bannerSetup() {
+        bannerPage = new BasePage(page);
+        appIdle = AppIdleDetector.fromConfig(page, prop);
         try {
             // Set default timeout for the page
             page.setDefaultTimeout(DEFAULT_TIMEOUT);
             
-            // Navigate to Banner Solutions website with navigation timeout
-            page.navigate("https://www.bannersolutions.com/", 
-                          new com.microsoft.playwright.Page.NavigateOptions()
-                              .setTimeout(NAVIGATION_TIMEOUT));
-            
-            // Wait for the page to be loaded with a more reliable approach
-            try {
-                // First try to wait for network idle (but don't fail the test if it times out)
-                page.waitForLoadState(LoadState.NETWORKIDLE, 
-                                     new com.microsoft.playwright.Page.WaitForLoadStateOptions()
-                                         .setTimeout(5000));
-            } catch (Exception e) {
-                System.out.println("Network idle timeout occurred, continuing with DOM content loaded state: " + e.getMessage());
-            }
+            // Navigate to Banner Solutions website and wait for first-party traffic to settle
+            // (third-party beacons never go quiet, so NETWORKIDLE would always run to its timeout)
+            appIdle.navigate(HOMEPAGE_URL, NAVIGATION_TIMEOUT);
             
             // Always wait for DOM content loaded (more reliable than network idle)
             page.waitForLoadState(LoadState.DOMCONTENTLOADED);
@@ -100,18 +110,10 @@ public class BannerSolutionsTest extends BaseTest {
      */
     private void navigateToHomepage() {
         try {
-            // Navigate to Banner Solutions website with navigation timeout
-            page.navigate("https://www.bannersolutions.com/", 
-                          new com.microsoft.playwright.Page.NavigateOptions()
-                              .setTimeout(NAVIGATION_TIMEOUT));
-            
-            // First try to wait for network idle (but don't fail if it times out)
-            try {
-                page.waitForLoadState(LoadState.NETWORKIDLE, 
-                                     new com.microsoft.playwright.Page.WaitForLoadStateOptions()
-                                         .setTimeout(5000));
-            } catch (Exception e) {
-                System.out.println("Network idle timeout occurred, continuing with DOM content loaded state");
+            // Navigate to Banner Solutions website and wait for first-party traffic to settle
+            AppIdleDetector.NavigationTiming timing = appIdle.navigate(HOMEPAGE_URL, NAVIGATION_TIMEOUT);
+            if (extentTest.get() != null) {
+                logStep(timing.toString());
             }
             
             // Always wait for DOM content loaded
@@ -159,7 +161,7 @@ public class BannerSolutionsTest extends BaseTest {
                     if (page.locator(selector).count() > 0) {
                         System.out.println("Found search icon with selector: " + selector);
                         page.locator(selector).first().click();
-                        page.waitForTimeout(ANIMATION_TIMEOUT);
+                        bannerPage.waitForAnimationsToFinish(null, ANIMATION_TIMEOUT);
                         searchInteractionSuccessful = true;
                         break;
                     }
@@ -279,13 +281,9 @@ public class BannerSolutionsTest extends BaseTest {
                 
                 if (searchSubmitted) {
                     // Wait for search results to load with more reliable approach
-                    try {
-                        // Try to wait for navigation to complete
-                        page.waitForLoadState(LoadState.NETWORKIDLE, 
-                                             new com.microsoft.playwright.Page.WaitForLoadStateOptions()
-                                                 .setTimeout(NAVIGATION_TIMEOUT));
-                    } catch (Exception e) {
-                        System.out.println("Navigation timeout during search, continuing: " + e.getMessage());
+                    // Wait for the search requests to the site itself to complete
+                    if (!appIdle.waitForAppIdle(NAVIGATION_TIMEOUT)) {
+                        System.out.println("Search results still loading after timeout, continuing");
                     }
                     
                     // Always wait for DOM content loaded
@@ -753,7 +751,7 @@ public class BannerSolutionsTest extends BaseTest {
                     if (page.locator(selector).count() > 0) {
                         System.out.println("Found search icon with selector: " + selector);
                         page.locator(selector).first().click();
-                        page.waitForTimeout(ANIMATION_TIMEOUT);
+                        bannerPage.waitForAnimationsToFinish(null, ANIMATION_TIMEOUT);
                         searchInteractionSuccessful = true;
                         break;
                     }
@@ -870,11 +868,12 @@ public class BannerSolutionsTest extends BaseTest {
                                 Locator addButtons = products.first().locator(cartSelector);
                                 if (addButtons.count() > 0) {
                                     System.out.println("Found Add to Cart button with selector: " + cartSelector);
-                                    addButtons.first().click();
+                                    String cartCountBefore = bannerPage.readCartCount(CART_COUNT_SELECTOR);
+                                    // Click and wait for the cart request to answer, then for the count to follow
+                                    bannerPage.waitForResponse(CART_RESPONSE, () -> addButtons.first().click(), CART_UPDATE_TIMEOUT);
                                     addedToCart = true;
                                     
-                                    // Wait for cart update
-                                    page.waitForTimeout(2000);
+                                    bannerPage.waitForCartCountChange(CART_COUNT_SELECTOR, cartCountBefore, CART_UPDATE_TIMEOUT);
                                     captureAndAttachScreenshot("product_added_to_cart_plp", "Product Added to Cart from PLP");
                                     break;
                                 }
@@ -987,7 +986,7 @@ public class BannerSolutionsTest extends BaseTest {
                     if (page.locator(selector).count() > 0) {
                         System.out.println("Found search icon with selector: " + selector);
                         page.locator(selector).first().click();
-                        page.waitForTimeout(ANIMATION_TIMEOUT);
+                        bannerPage.waitForAnimationsToFinish(null, ANIMATION_TIMEOUT);
                         searchInteractionSuccessful = true;
                         break;
                     }
@@ -1144,11 +1143,12 @@ public class BannerSolutionsTest extends BaseTest {
                                         }
                                         
                                         // Click Add to Cart button
-                                        addButtons.first().click();
+                                        String cartCountBefore = bannerPage.readCartCount(CART_COUNT_SELECTOR);
+                                        // Click and wait for the cart request to answer, then for the count to follow
+                                        bannerPage.waitForResponse(CART_RESPONSE, () -> addButtons.first().click(), CART_UPDATE_TIMEOUT);
                                         addedToCart = true;
                                         
-                                        // Wait for cart update
-                                        page.waitForTimeout(2000);
+                                        bannerPage.waitForCartCountChange(CART_COUNT_SELECTOR, cartCountBefore, CART_UPDATE_TIMEOUT);
                                         captureAndAttachScreenshot("product_added_to_cart_pdp", "Product Added to Cart from PDP");
                                         break;
                                     }
@@ -1442,11 +1442,12 @@ public class BannerSolutionsTest extends BaseTest {
                                 Locator button = buttons.nth(i);
                                 if (button.isVisible()) {
                                     System.out.println("Found Add to Cart button with selector: " + selector);
-                                    button.click();
+                                    String cartCountBefore = bannerPage.readCartCount(CART_COUNT_SELECTOR);
+                                    // Click and wait for the cart request to answer, then for the count to follow
+                                    bannerPage.waitForResponse(CART_RESPONSE, () -> button.click(), CART_UPDATE_TIMEOUT);
                                     addedToCart = true;
                                     
-                                    // Wait for cart update
-                                    page.waitForTimeout(2000);
+                                    bannerPage.waitForCartCountChange(CART_COUNT_SELECTOR, cartCountBefore, CART_UPDATE_TIMEOUT);
                                     captureAndAttachScreenshot("product_added_from_order_pad", "Product Added from Order Pad");
                                     break;
                                 }
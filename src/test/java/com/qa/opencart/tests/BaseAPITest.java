@@ -0,0 +1,72 @@
+package com.qa.opencart.tests;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
+import com.qa.opencart.factory.PlaywrightFactory;
+import com.qa.opencart.listeners.SuiteReportListener;
+import com.qa.opencart.utils.LiveEvents;
+import org.testng.ITestResult;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Method;
+import java.util.Properties;
+
+/**
+ * Base for tests that only call APIs: configuration and a report node per test, but no browser.
+ * The suite's report is set up and flushed by {@link SuiteReportListener}, also when no browser
+ * test is in the run.
+ */
+@Listeners(SuiteReportListener.class)
+public class BaseAPITest {
+    protected Properties prop;
+    protected static ThreadLocal<ExtentTest> extentTest = new ThreadLocal<>();
+
+    @BeforeClass
+    public void setup() {
+        prop = new PlaywrightFactory().init_prop();
+    }
+
+    @BeforeMethod
+    public void setupTest(Method method) {
+        String testDescription = method.isAnnotationPresent(Test.class) ? method.getAnnotation(Test.class).description() : "";
+        if (testDescription.isEmpty()) {
+            testDescription = "Execution of test: " + method.getName();
+        }
+        ExtentReports extent = SuiteReportListener.getExtent();
+        if (extent != null) {
+            extentTest.set(extent.createTest(method.getName(), testDescription));
+        } else {
+            extentTest.remove();
+        }
+        LiveEvents.publish("test-start", method.getName(), testDescription);
+    }
+
+    @AfterMethod
+    public void tearDownTest(ITestResult result) {
+        String testName = result.getMethod().getMethodName();
+        ExtentTest test = extentTest.get();
+        if (result.getStatus() == ITestResult.FAILURE) {
+            if (test != null) {
+                test.fail(result.getThrowable());
+            }
+            LiveEvents.publish("test-fail", testName, String.valueOf(result.getThrowable()));
+        } else if (result.getStatus() == ITestResult.SUCCESS) {
+            if (test != null) {
+                test.pass("Test passed successfully");
+            }
+            LiveEvents.publish("test-pass", testName, "Test passed successfully");
+        } else if (result.getStatus() == ITestResult.SKIP) {
+            if (test != null) {
+                test.skip("Test skipped: " + result.getThrowable());
+            }
+            LiveEvents.publish("test-skip", testName, String.valueOf(result.getThrowable()));
+        }
+        if (test != null) {
+            test.info("URL: " + prop.getProperty("url"));
+        }
+    }
+}
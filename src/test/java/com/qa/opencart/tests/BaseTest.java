@@ -1,72 +1,118 @@
 package com.qa.opencart.tests;
 
-import com.aventstack.extentreports.ExtentReports;
 import com.aventstack.extentreports.ExtentTest;
-import com.aventstack.extentreports.reporter.ExtentSparkReporter;
+import com.aventstack.extentreports.MediaEntityBuilder;
+import com.microsoft.playwright.BrowserContext;
 import com.microsoft.playwright.Page;
+import com.qa.opencart.api.APIRequestContextPool;
+import com.qa.opencart.api.ResponseCache;
+import com.qa.opencart.data.LoginData;
+import com.qa.opencart.factory.BrowserPool;
 import com.qa.opencart.factory.PlaywrightFactory;
+import com.qa.opencart.listeners.DataDrivenListener;
+import com.qa.opencart.listeners.SuiteReportListener;
 import com.qa.opencart.pages.HomePage;
+import com.qa.opencart.utils.ArtifactPublisher;
+import com.qa.opencart.utils.LiveEvents;
+import com.qa.opencart.utils.SimpleHttpServer;
+import com.qa.opencart.utils.StreamingDataProvider;
+import com.qa.opencart.utils.TestDataReader;
+import com.qa.opencart.utils.TranscodingService;
+import com.qa.opencart.utils.VideoConverter;
+import com.qa.opencart.utils.VideoPlayerPage;
+import com.qa.opencart.utils.WaitStatistics;
 import org.testng.ITestResult;
 import org.testng.annotations.*;
 
 import java.io.File;
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Properties;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
 
+@Listeners(SuiteReportListener.class)
 public class BaseTest {
     protected PlaywrightFactory pf;
     protected Page page;
     protected HomePage homePage;
     protected Properties prop;
     
-    // Extent Report
-    private static final String REPORT_PATH = "./reports/TestExecutionReport.html";
-    protected static ExtentReports extent;
+    // Extent Report (created and flushed by SuiteReportListener)
     protected static ThreadLocal<ExtentTest> extentTest = new ThreadLocal<>();
+    
+    // Isolated per-row context for parallel data-driven tests (see rowPage())
+    private static ThreadLocal<BrowserContext> rowContext = new ThreadLocal<>();
+    private static ThreadLocal<ResponseCache.Bypass> cacheBypass = new ThreadLocal<>();
+    private static SimpleHttpServer liveServer;
+    
+    // Screenshots of the running test, and the tests waiting for a thumbnail strip (built once videos are finished)
+    private static ThreadLocal<List<String>> testScreenshots = ThreadLocal.withInitial(ArrayList::new);
+    private static final Queue<PendingStrip> pendingStrips = new ConcurrentLinkedQueue<>();
+    private static final long STRIP_WAIT_MS = 60_000;
+    // Published links per source recording (every test of a class links the same class video)
+    private static final Map<String, Queue<CompletableFuture<Path>>> publishedVideos = new ConcurrentHashMap<>();
+    // Only the opt-in video.transcodeOnPublish makes suite teardown wait for FFmpeg
+    private static final long PUBLISH_TRANSCODE_WAIT_MS = 120_000;
+    
+    private static final String PLAYER_DIR = "video-players";
+    
+    private static ThreadLocal<Long> testStartMillis = new ThreadLocal<>();
+    
+    /**
+     * A test waiting for its strip; startMillis and endMillis are offsets of the test in its class video
+     */
+    private record PendingStrip(ExtentTest test, String testName, String videoPath, long startMillis, long endMillis,
+                                List<String> screenshots) {
+    }
+    
+    // Tests in this group always hit the live API, even through clients that opted into the response cache
+    protected static final String LIVE_API_GROUP = "live-api";
 
     @BeforeSuite
-    public void setupReports() {
-        try {
-            // Create reports directory if it doesn't exist
-            File reportsDir = new File("./reports");
-            if (!reportsDir.exists()) {
-                reportsDir.mkdirs();
-                System.out.println("Created reports directory: " + reportsDir.getAbsolutePath());
-            }
-            
-            // Create screenshots directory if it doesn't exist
-            File screenshotsDir = new File("./reports/screenshots");
-            if (!screenshotsDir.exists()) {
-                screenshotsDir.mkdirs();
-                System.out.println("Created screenshots directory: " + screenshotsDir.getAbsolutePath());
+    public void installVideoPlayer() {
+        // One static player page for every video, instead of a generated page per test
+        VideoPlayerPage.install(Paths.get("./reports", PLAYER_DIR));
+    }
+
+    @BeforeSuite
+    public void preloadTestData() {
+        // Parse every test data file once, in parallel, before the data providers need them
+        Properties suiteProp = new PlaywrightFactory().init_prop();
+        if (Boolean.parseBoolean(suiteProp.getProperty("preloadTestData", "false").trim())) {
+            TestDataReader.preloadAll();
+        }
+        ResponseCache.configureShared(suiteProp);
+        TranscodingService.shared().configure(suiteProp);
+        APIRequestContextPool.configure(suiteProp);
+    }
+
+    @BeforeSuite
+    public void startLiveReport() {
+        // Optional: serve the reports from this JVM and stream test events to /live while the suite runs
+        Properties suiteProp = new PlaywrightFactory().init_prop();
+        if (Boolean.parseBoolean(suiteProp.getProperty("liveReport", "false").trim())) {
+            try {
+                liveServer = new SimpleHttpServer(Integer.parseInt(suiteProp.getProperty("liveReportPort", "8090").trim()), ".")
+                    .enableLiveMode()
+                    .enableArtifactIndex("reports", "test-results");
+                liveServer.start();
+            } catch (IOException e) {
+                System.err.println("Failed to start live report server: " + e.getMessage());
+                liveServer = null;
             }
-            
-            // Use absolute path for the report
-            String absoluteReportPath = new File(REPORT_PATH).getAbsolutePath();
-            
-            ExtentSparkReporter htmlReporter = new ExtentSparkReporter(absoluteReportPath);
-            htmlReporter.config().setDocumentTitle("OpenCart Test Report");
-            htmlReporter.config().setReportName("Test Results");
-            
-            // Configure to enable viewing of base64 images
-            htmlReporter.config().setEncoding("utf-8");
-            htmlReporter.config().setJs("document.getElementsByClassName('logo')[0].style.display='none';");
-            htmlReporter.config().setCss(".report-name { padding-left: 0px; } .report-name > img { float: left;height: 90%;margin-left: 30px;margin-top: 2px;width: auto; }");
-            
-            extent = new ExtentReports();
-            extent.attachReporter(htmlReporter);
-            extent.setSystemInfo("Automation Tester", "QA Team");
-            extent.setSystemInfo("Organization", "OpenCart");
-            extent.setSystemInfo("Build No", "1.0");
-            extent.setSystemInfo("Report Path", absoluteReportPath);
-            extent.setSystemInfo("Screenshots Path", screenshotsDir.getAbsolutePath());
-            
-            System.out.println("Extent Report initialized at: " + absoluteReportPath);
-        } catch (Exception e) {
-            System.err.println("Failed to initialize Extent Report: " + e.getMessage());
-            e.printStackTrace();
         }
     }
 
@@ -94,13 +140,24 @@ public class BaseTest {
         }
         
         // Create test in the report
-        ExtentTest test = extent.createTest(method.getName(), testDescription);
+        ExtentTest test = SuiteReportListener.getExtent().createTest(method.getName(), testDescription);
         
         // Add test start info
         test.info("Starting test: " + method.getName());
         test.info("Test started at: " + java.time.LocalDateTime.now());
         
         extentTest.set(test);
+        testScreenshots.set(new ArrayList<>());
+        testStartMillis.set(System.currentTimeMillis());
+        LiveEvents.publish("test-start", method.getName(), testDescription);
+        
+        // Start a fresh tally of event-driven waits for this test
+        WaitStatistics.reset();
+        
+        if (method.isAnnotationPresent(Test.class)
+                && Arrays.asList(method.getAnnotation(Test.class).groups()).contains(LIVE_API_GROUP)) {
+            cacheBypass.set(ResponseCache.bypass());
+        }
     }
 
     @DataProvider(name = "deviceData")
@@ -113,6 +170,59 @@ public class BaseTest {
         };
     }
 
+    /**
+     * Same rows as deviceData, run in parallel; tests should drive rowPage() rather than the shared page
+     */
+    @DataProvider(name = "deviceDataParallel", parallel = true)
+    public Object[][] getDeviceDataParallel() {
+        return getDeviceData();
+    }
+
+    /**
+     * Page in a fresh browser context for the current data row, opened on the URL under test.
+     * The context comes from the worker thread's shared browser and is closed after the test method.
+     */
+    protected Page rowPage() {
+        BrowserContext context = rowContext.get();
+        if (context == null) {
+            context = BrowserPool.newRowContext(prop);
+            rowContext.set(context);
+            context.newPage().navigate(prop.getProperty("url").trim());
+        }
+        return context.pages().get(0);
+    }
+
+    /**
+     * Users from login-data.json that can log in, one row per user
+     */
+    @DataProvider(name = "validUsers")
+    public Object[][] getValidUsers() {
+        return TestDataReader.getTestData("login-data", LoginData.class).validUsers().stream()
+            .map(user -> new Object[] {user})
+            .toArray(Object[][]::new);
+    }
+
+    /**
+     * Users from login-data.json whose login is rejected, one row per user
+     */
+    @DataProvider(name = "invalidUsers")
+    public Object[][] getInvalidUsers() {
+        return TestDataReader.getTestData("login-data", LoginData.class).invalidUsers().stream()
+            .map(user -> new Object[] {user})
+            .toArray(Object[][]::new);
+    }
+
+    /**
+     * Search terms streamed lazily from search-terms.jsonl, sharded by -Dshard.index/-Dshard.count
+     */
+    @DataProvider(name = "searchTermsStream")
+    public Iterator<Object[]> getSearchTermsStream() {
+        return StreamingDataProvider.from("search-terms.jsonl")
+            .columns("term", "expectedTitle")
+            .shardFromSystemProperties()
+            .iterator();
+    }
+
     @AfterMethod
     public void tearDownTest(ITestResult result) {
         String testName = result.getMethod().getMethodName();
@@ -121,6 +231,7 @@ public class BaseTest {
             // Capture screenshot for failed test
             String screenshotPath = takeScreenshot(testName + "_failure");
             extentTest.get().fail(result.getThrowable());
+            LiveEvents.publish("test-fail", testName, String.valueOf(result.getThrowable()));
             
             // Add screenshot to report
             if (screenshotPath != null) {
@@ -137,6 +248,7 @@ public class BaseTest {
             // Capture screenshot for passed test
             String screenshotPath = takeScreenshot(testName + "_success");
             extentTest.get().pass("Test passed successfully");
+            LiveEvents.publish("test-pass", testName, "Test passed successfully");
             
             // Add screenshot to report for passed tests too
             if (screenshotPath != null) {
@@ -151,33 +263,74 @@ public class BaseTest {
             }
         } else if (result.getStatus() == ITestResult.SKIP) {
             extentTest.get().skip("Test skipped: " + result.getThrowable());
+            LiveEvents.publish("test-skip", testName, String.valueOf(result.getThrowable()));
         }
         
         // Add video recording link if available
         String videoPath = pf.getVideoFilePath(testName);
         if (videoPath != null) {
-            // Copy video to reports directory for better accessibility
-            String reportVideoPath = copyVideoToReportsDirectory(videoPath, testName);
-            
-            // Use the copied video path if successful, otherwise use the original
-            String videoPathToUse = (reportVideoPath != null) ? reportVideoPath : videoPath;
+            // Publish the video to the reports directory in the background (hard link, else copy);
+            // the unique target name is known up front, so the report can link it straight away
+            String videoPathToUse = videoPath;
+            if (Files.exists(Paths.get(videoPath))) {
+                ArtifactPublisher.Publication publication =
+                    ArtifactPublisher.publish(Paths.get(videoPath), Paths.get("./reports/videos"), testName);
+                videoPathToUse = "./reports/videos/" + publication.target().getFileName();
+                publishedVideos.computeIfAbsent(videoPath, source -> new ConcurrentLinkedQueue<>())
+                    .add(publication.done().exceptionally(e -> {
+                        System.err.println("Failed to publish video: " + e.getMessage());
+                        return null;
+                    }));
+            }
             
             extentTest.get().info("Video recording: " + videoPathToUse);
             
-            // Create a video player HTML file for better browser compatibility
-            String playerHtmlPath = createVideoPlayerHtml(testName, videoPathToUse);
+            // Links relative to the report; the shared player page takes the video from its query string
+            Path reportsDir = Paths.get("./reports").toAbsolutePath().normalize();
+            Path video = Paths.get(videoPathToUse).toAbsolutePath().normalize();
+            String videoFromReport = reportsDir.relativize(video).toString().replace('\\', '/');
+            String videoFromPlayer = reportsDir.resolve(PLAYER_DIR).relativize(video).toString().replace('\\', '/');
+            String playerLink = VideoPlayerPage.link(PLAYER_DIR + "/" + VideoPlayerPage.FILE_NAME, videoFromPlayer, testName);
             
             // Add links to both direct video and player HTML
-            extentTest.get().info("<a href='" + videoPathToUse + "' target='_blank'>Direct Video Link</a> | " +
-                                 "<a href='" + playerHtmlPath + "' target='_blank'>Open Video Player</a>");
+            extentTest.get().info("<a href='" + videoFromReport + "' target='_blank'>Direct Video Link</a> | " +
+                                 "<a href='" + playerLink + "' target='_blank'>Open Video Player</a>");
             
             System.out.println("Added video links to report: " + videoPathToUse);
         }
         
+        // Thumbnail strip for triage; built at suite end, once the class's video is finished
+        String thumbnails = prop.getProperty("thumbnails", "failed").trim();
+        if (thumbnails.equals("all") || (thumbnails.equals("failed") && result.getStatus() == ITestResult.FAILURE)) {
+            long videoStart = pf.getVideoStartMillis();
+            pendingStrips.add(new PendingStrip(extentTest.get(), testName, videoPath,
+                testStartMillis.get() - videoStart, System.currentTimeMillis() - videoStart, testScreenshots.get()));
+        }
+        
+        // Report how much fixed sleep time the event-driven waits replaced
+        WaitStatistics waitStatistics = WaitStatistics.current();
+        if (waitStatistics.getWaits() > 0) {
+            extentTest.get().info(waitStatistics.summary());
+            System.out.println(testName + " - " + waitStatistics.summary());
+        }
+        
         // Add test environment info
         extentTest.get().info("Browser: " + prop.getProperty("browser"));
         extentTest.get().info("URL: " + prop.getProperty("url"));
         extentTest.get().info("Test completed at: " + java.time.LocalDateTime.now());
+        
+        ResponseCache.Bypass bypass = cacheBypass.get();
+        if (bypass != null) {
+            cacheBypass.remove();
+            bypass.close();
+        }
+        
+        // Close the isolated row context, if this test used one, and the worker's browser after its last row
+        BrowserContext context = rowContext.get();
+        if (context != null) {
+            rowContext.remove();
+            BrowserPool.closeRowContext(context, !DataDrivenListener.hasRowsToStart(result));
+        }
     }
 
     @AfterClass
@@ -189,10 +342,19 @@ public class BaseTest {
     
     @AfterSuite
     public void tearDownReports() {
-        if (extent != null) {
-            extent.flush();
-            System.out.println("Extent Report flushed to: " + REPORT_PATH);
-            System.out.println("Please check the report at: " + new File(REPORT_PATH).getAbsolutePath());
+        BrowserPool.closeAll();
+        APIRequestContextPool.closeAll();
+        
+        // Videos are finished once the browsers are closed: make the copies that could not be linked
+        ArtifactPublisher.copyDeferred();
+        if (!ArtifactPublisher.awaitPending(Duration.ofSeconds(30))) {
+            System.err.println("Some videos were still being published at suite end");
+        }
+        transcodePublishedVideos();
+        
+        // SuiteReportListener adds the suite roll-ups and flushes the report after this teardown
+        if (SuiteReportListener.getExtent() != null) {
+            attachThumbnailStrips();
             
             // Offer to start a local server for viewing reports with proper video playback
             System.out.println("\n=== VIDEO PLAYBACK SOLUTION ===");
@@ -202,6 +364,13 @@ public class BaseTest {
             System.out.println("3. This will avoid the ERR_FILE_NOT_FOUND issues when accessing videos");
             System.out.println("==============================\n");
         }
+        
+        if (liveServer != null) {
+            liveServer.stop();
+            liveServer = null;
+        }
+        // Everything worth waiting for was awaited above; kill what is left instead of leaving orphan FFmpegs
+        TranscodingService.shared().shutdownNow();
     }
     
     private String takeScreenshot(String testName) {
@@ -215,7 +384,10 @@ public class BaseTest {
             
             String screenshotPath = screenshotsDir.getAbsolutePath() + File.separator + screenshotFileName;
             
-            homePage.takeScreenshot(screenshotPath);
+            // Data-driven rows capture their own isolated page, other tests the class-level page
+            HomePage screenshotPage = rowContext.get() != null ? new HomePage(rowPage()) : homePage;
+            screenshotPage.takeScreenshot(screenshotPath);
+            testScreenshots.get().add(screenshotPath);
             return screenshotPath;
         } catch (Exception e) {
             System.err.println("Failed to take screenshot: " + e.getMessage());
@@ -224,6 +396,19 @@ public class BaseTest {
         }
     }
 
+    /**
+     * Log a test step to the report and to the live event stream
+     * @param message Step description
+     */
+    protected void logStep(String message) {
+        if (Boolean.parseBoolean(prop.getProperty("thumbnails.stepScreenshots", "false").trim())) {
+            // Step boundary frame for the thumbnail strip when there is no FFmpeg to read the video
+            takeScreenshot(extentTest.get().getModel().getName());
+        }
+        extentTest.get().info(message);
+        LiveEvents.publish("step", extentTest.get().getModel().getName(), message);
+    }
+
     /**
      * Capture a screenshot and add it to the current test report
      * @param screenshotName Name for the screenshot
@@ -235,6 +420,7 @@ public class BaseTest {
             try {
                 extentTest.get().info(description)
                           .addScreenCaptureFromPath(screenshotPath, description);
+                LiveEvents.publish("attachment", extentTest.get().getModel().getName(), screenshotPath);
                 System.out.println("Added custom screenshot to report: " + screenshotPath);
             } catch (Exception e) {
                 extentTest.get().info("Could not attach screenshot: " + e.getMessage());
@@ -244,191 +430,71 @@ public class BaseTest {
     }
 
     /**
-     * Creates an HTML file with a video player for better browser compatibility
-     * @param testName Name of the test
-     * @param videoPath Path to the video file
-     * @return Path to the HTML player file
+     * With video.transcodeOnPublish, convert each source recording to MP4 once, now that it is complete,
+     * and link the MP4 next to every published copy of it
+     * (MP4s are otherwise transcoded by the report server on first request)
      */
-    private String createVideoPlayerHtml(String testName, String videoPath) {
-        try {
-            // Create player directory if it doesn't exist
-            java.io.File playerDir = new java.io.File("./reports/video-players");
-            if (!playerDir.exists()) {
-                playerDir.mkdirs();
-            }
-            
-            // Create player HTML file path
-            String htmlFileName = testName + "_" + System.currentTimeMillis() + "_player.html";
-            String htmlFilePath = "./reports/video-players/" + htmlFileName;
-            
-            // Get absolute paths for better browser compatibility
-            File htmlFile = new File(htmlFilePath);
-            File videoFile = new File(videoPath);
-            
-            // Calculate relative path from HTML to video
-            // For simplicity, we'll also include absolute path as an option
-            String relativeVideoPath = getRelativePath(htmlFile, videoFile);
-            String absoluteVideoPath = videoFile.getAbsolutePath();
-            
-            // Create MP4 copy if possible (for browser compatibility)
-            String mp4VideoPath = null;
-            File mp4File = null;
-            try {
-                // Try to create an MP4 copy - just a simple extension rename
-                if (videoPath.toLowerCase().endsWith(".webm")) {
-                    String mp4FilePath = videoPath.substring(0, videoPath.lastIndexOf(".")) + ".mp4";
-                    java.nio.file.Files.copy(
-                        java.nio.file.Paths.get(videoPath), 
-                        java.nio.file.Paths.get(mp4FilePath),
-                        java.nio.file.StandardCopyOption.REPLACE_EXISTING
-                    );
-                    mp4File = new File(mp4FilePath);
-                    mp4VideoPath = getRelativePath(htmlFile, mp4File);
-                    System.out.println("Created MP4 copy at: " + mp4FilePath);
-                }
-            } catch (Exception e) {
-                System.out.println("Note: Could not create MP4 copy. This is a simple rename and may not work for playback: " + e.getMessage());
+    private void transcodePublishedVideos() {
+        Properties suiteProp = new PlaywrightFactory().init_prop();
+        boolean transcode = Boolean.parseBoolean(suiteProp.getProperty("video.transcodeOnPublish", "false").trim());
+        List<CompletableFuture<Void>> conversions = new ArrayList<>();
+        for (Map.Entry<String, Queue<CompletableFuture<Path>>> source : publishedVideos.entrySet()) {
+            List<Path> published = source.getValue().stream()
+                .map(done -> done.getNow(null))
+                .filter(Objects::nonNull)
+                .toList();
+            if (transcode && !published.isEmpty()) {
+                conversions.add(VideoConverter.convertInBackground(source.getKey()).thenAccept(mp4 -> {
+                    for (Path video : published) {
+                        String name = video.getFileName().toString();
+                        Path target = video.resolveSibling(name.substring(0, name.lastIndexOf('.')) + ".mp4");
+                        try {
+                            ArtifactPublisher.linkOrCopy(mp4, target);
+                        } catch (IOException e) {
+                            System.err.println("Failed to publish " + target + ": " + e.getMessage());
+                        }
+                    }
+                }));
             }
-            
-            // HTML content with video player
-            String htmlContent = "<!DOCTYPE html>\n" +
-                "<html>\n" +
-                "<head>\n" +
-                "    <title>Test Video: " + testName + "</title>\n" +
-                "    <meta charset=\"UTF-8\">\n" +
-                "    <meta name=\"viewport\" content=\"width=device-width, initial-scale=1.0\">\n" +
-                "    <style>\n" +
-                "        body { font-family: Arial, sans-serif; margin: 20px; background-color: #f5f5f5; }\n" +
-                "        h1 { color: #333; }\n" +
-                "        .video-container { margin: 20px 0; }\n" +
-                "        video { max-width: 100%; border: 1px solid #ddd; background: #000; }\n" +
-                "        .notes { margin-top: 20px; padding: 15px; background: #fff; border: 1px solid #ddd; border-radius: 4px; }\n" +
-                "        .download-btn { display: inline-block; padding: 10px 15px; background: #4CAF50; color: white; text-decoration: none; border-radius: 4px; margin-top: 10px; }\n" +
-                "        .download-btn:hover { background: #45a049; }\n" +
-                "        .tab { margin-left: 20px; }\n" +
-                "        .file-paths { font-size: 12px; color: #666; }\n" +
-                "        .error-message { color: red; display: none; padding: 10px; background: #ffeeee; border: 1px solid #ffcccc; margin-top: 10px; }\n" +
-                "    </style>\n" +
-                "</head>\n" +
-                "<body>\n" +
-                "    <h1>Test Video: " + testName + "</h1>\n" +
-                "    <div class=\"video-container\">\n" +
-                "        <video controls>\n";
-            
-            // Add MP4 source first (if available) for better compatibility
-            if (mp4VideoPath != null) {
-                htmlContent += "            <source src=\"" + mp4VideoPath + "\" type=\"video/mp4\">\n";
-            }
-            
-            // Add WebM source with both relative and absolute paths
-            htmlContent += "            <source src=\"" + relativeVideoPath + "\" type=\"video/webm\">\n" +
-                "            Your browser does not support the video tag.\n" +
-                "        </video>\n" +
-                "    </div>\n" +
-                "    <div class=\"error-message\" id=\"errorMessage\">\n" +
-                "        Video couldn't be loaded due to browser security restrictions. Try using the download button below.\n" +
-                "    </div>\n" +
-                "    <a href=\"" + relativeVideoPath + "\" download class=\"download-btn\">Download Video</a>\n" +
-                "    <div class=\"notes\">\n" +
-                "        <p><strong>Troubleshooting Video Playback:</strong></p>\n" +
-                "        <ol>\n" +
-                "            <li><strong>Browser Security Issues</strong> - If you're seeing ERR_FILE_NOT_FOUND, it's likely due to browser security restrictions for local files</li>\n" +
-                "            <li><strong>Use a Local Server</strong> - Open these files using a local web server instead of directly from the filesystem</li>\n" +
-                "            <li><strong>Try a different browser</strong> - Chrome has the best WebM support</li>\n" +
-                "            <li><strong>Download and play locally</strong> - Use the Download button above</li>\n" +
-                "            <li><strong>Use VLC Media Player</strong> - <a href=\"https://www.videolan.org/vlc/\" target=\"_blank\">Download VLC</a> to play WebM files</li>\n" +
-                "        </ol>\n" +
-                "        <p><strong>Video Information:</strong></p>\n" +
-                "        <p class=\"tab\">Test Name: " + testName + "</p>\n" +
-                "        <p class=\"tab\">Date: " + java.time.LocalDateTime.now() + "</p>\n" +
-                "        <p class=\"tab file-paths\">Relative Path: " + relativeVideoPath + "</p>\n" +
-                "        <p class=\"tab file-paths\">Absolute Path: " + absoluteVideoPath + "</p>\n" +
-                "    </div>\n" +
-                "    <script>\n" +
-                "        // Check if video loads properly\n" +
-                "        document.querySelector('video').addEventListener('error', function() {\n" +
-                "            document.getElementById('errorMessage').style.display = 'block';\n" +
-                "        });\n" +
-                "    </script>\n" +
-                "</body>\n" +
-                "</html>";
-            
-            // Write to file
-            java.io.FileWriter writer = new java.io.FileWriter(htmlFilePath);
-            writer.write(htmlContent);
-            writer.close();
-            
-            System.out.println("Created video player HTML at: " + htmlFilePath);
-            return htmlFilePath;
-            
-        } catch (Exception e) {
-            System.err.println("Error creating video player HTML: " + e.getMessage());
-            e.printStackTrace();
-            return null;
         }
-    }
-    
-    /**
-     * Get the relative path from one file to another
-     * @param from The file from which the relative path starts
-     * @param to The file to which the relative path leads
-     * @return The relative path
-     */
-    private String getRelativePath(File from, File to) {
+        publishedVideos.clear();
+        if (conversions.isEmpty()) {
+            return;
+        }
         try {
-            // Try to calculate a proper relative path
-            String fromPath = from.getParentFile().getAbsolutePath();
-            String toPath = to.getAbsolutePath();
-            
-            // Handle case sensitivity and normalize paths
-            fromPath = fromPath.replace('\\', '/');
-            toPath = toPath.replace('\\', '/');
-            
-            // Simple approach - could be improved for complex paths
-            java.net.URI fromURI = new java.net.URI("file://" + fromPath + "/");
-            java.net.URI toURI = new java.net.URI("file://" + toPath);
-            java.net.URI relativeURI = fromURI.relativize(toURI);
-            String relativePath = relativeURI.getPath();
-            
-            System.out.println("Calculated relative path: " + relativePath);
-            return relativePath;
+            CompletableFuture.allOf(conversions.toArray(new CompletableFuture[0]))
+                .get(PUBLISH_TRANSCODE_WAIT_MS, TimeUnit.MILLISECONDS);
         } catch (Exception e) {
-            System.out.println("Error calculating relative path, using direct path: " + e.getMessage());
-            // Fallback to direct path if relative path calculation fails
-            return to.getName();
+            System.out.println("Not every video was converted to MP4: " + e.getMessage());
         }
     }
 
-    private String copyVideoToReportsDirectory(String videoPath, String testName) {
-        try {
-            // Create reports directory if it doesn't exist
-            File reportsDir = new File("./reports");
-            if (!reportsDir.exists()) {
-                reportsDir.mkdirs();
-                System.out.println("Created reports directory: " + reportsDir.getAbsolutePath());
-            }
-            
-            // Create videos directory if it doesn't exist
-            File videosDir = new File("./reports/videos");
-            if (!videosDir.exists()) {
-                videosDir.mkdirs();
-                System.out.println("Created videos directory: " + videosDir.getAbsolutePath());
+    /**
+     * Build the pending thumbnail strips in parallel and add each to its test node.
+     * Each test gets its own strip of its window of the class video; strips not ready within STRIP_WAIT_MS are left out.
+     */
+    private void attachThumbnailStrips() {
+        List<Map.Entry<PendingStrip, CompletableFuture<Path>>> strips = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        for (PendingStrip strip; (strip = pendingStrips.poll()) != null; ) {
+            // One strip per test: unique name even for parameterized rows of the same method
+            Path stripPath = Paths.get("./reports/thumbnails", strip.testName() + "_" + (now + strips.size()) + ".jpg");
+            CompletableFuture<Path> future = VideoConverter.createThumbnailStrip(strip.videoPath(),
+                strip.startMillis() / 1000.0, (strip.endMillis() - strip.startMillis()) / 1000.0,
+                strip.screenshots(), stripPath);
+            strips.add(Map.entry(strip, future));
+        }
+        
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(STRIP_WAIT_MS);
+        for (Map.Entry<PendingStrip, CompletableFuture<Path>> strip : strips) {
+            try {
+                Path stripPath = strip.getValue().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                // Relative to the report, so it resolves both from disk and through SimpleHttpServer
+                String relativePath = "thumbnails/" + stripPath.getFileName();
+                strip.getKey().test().info("Timeline", MediaEntityBuilder.createScreenCaptureFromPath(relativePath).build());
+            } catch (Exception e) {
+                System.out.println("No thumbnail strip for " + strip.getKey().testName() + ": " + e.getMessage());
             }
-            
-            // Copy video to reports directory
-            String reportVideoPath = "./reports/videos/" + testName + ".webm";
-            java.nio.file.Files.copy(
-                java.nio.file.Paths.get(videoPath), 
-                java.nio.file.Paths.get(reportVideoPath),
-                java.nio.file.StandardCopyOption.REPLACE_EXISTING
-            );
-            
-            System.out.println("Copied video to reports directory: " + reportVideoPath);
-            return reportVideoPath;
-        } catch (Exception e) {
-            System.err.println("Failed to copy video to reports directory: " + e.getMessage());
-            e.printStackTrace();
-            return null;
         }
     }
 }
@@ -1,5 +1,7 @@
 package com.qa.opencart.tests;
 
+import com.microsoft.playwright.Page;
+import com.qa.opencart.api.SessionFixture;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -40,4 +42,20 @@ public class HomePageTests extends BaseTest {
         
         Assert.assertEquals(header,"Search - Macbook");
     }
+
+    @Test(description = "Verify a cart item set up over HTTP shows on the cart page")
+    public void cartPrefilledThroughApiTest(){
+        // Put the MacBook (product 43) in the cart over HTTP instead of clicking through search and PDP
+        Page cartPage = rowPage();
+        try (SessionFixture fixture = SessionFixture.fromConfig(prop)) {
+            fixture.startSession().addToCart("43", 1);
+            fixture.applyTo(cartPage.context());
+        }
+        
+        cartPage.navigate(prop.getProperty("url").trim() + "index.php?route=checkout/cart");
+        captureAndAttachScreenshot("cart_prefilled_through_api", "Cart Prefilled Through API");
+        
+        Assert.assertTrue(cartPage.locator("div#content table").textContent().contains("MacBook"),
+            "Cart should contain the product added through the API fixture");
+    }
 }
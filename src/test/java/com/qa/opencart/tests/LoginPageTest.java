@@ -1,4 +1,31 @@
 package com.qa.opencart.tests;
 
-public class LoginPageTest {
+import com.qa.opencart.api.SessionFixture;
+import com.qa.opencart.data.User;
+import com.qa.opencart.pages.LoginPage;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class LoginPageTest extends BaseTest {
+
+    @Test(dataProvider = "invalidUsers", description = "Verify a rejected login shows the error message")
+    public void invalidLoginTest(User user) {
+        LoginPage loginPage = homePage.navigateToLogin();
+        loginPage.doLogin(user.email(), user.password());
+
+        Assert.assertTrue(loginPage.getLoginErrorMessage().contains(user.expectedError()),
+            "Login error message is not matching for user: " + user.email());
+    }
+
+    @Test(dataProvider = "validUsers", description = "Verify a session logged in over HTTP opens the account page")
+    public void loginThroughApiTest(User user) {
+        try (SessionFixture fixture = SessionFixture.fromConfig(prop)) {
+            fixture.login(user);
+            fixture.applyTo(page.context());
+        }
+
+        page.navigate(prop.getProperty("url").trim() + "index.php?route=account/account");
+        Assert.assertEquals(page.title(), user.expectedTitle(),
+            "Account page title is not matching for user: " + user.email());
+    }
 }
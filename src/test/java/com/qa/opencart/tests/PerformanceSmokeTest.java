@@ -0,0 +1,36 @@
+package com.qa.opencart.tests;
+
+import com.qa.opencart.api.APICall;
+import com.qa.opencart.api.LoadGenerator;
+import com.qa.opencart.api.LoadReport;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+
+public class PerformanceSmokeTest extends BaseAPITest {
+
+    @Test(description = "Replay the main storefront endpoints at a constant rate and check the error rate")
+    public void storefrontLoadSmokeTest(){
+        LoadReport report = LoadGenerator.builder("storefront-smoke", prop.getProperty("url").trim())
+            .endpoint("home", APICall.get(""), 3)
+            .endpoint("search", APICall.get("index.php?route=product/search&search=macbook"), 2)
+            .endpoint("product", APICall.get("index.php?route=product/product&product_id=43"), 1)
+            .constantRate(Double.parseDouble(prop.getProperty("loadTest.rate", "5").trim()))
+            .duration(Duration.ofSeconds(Long.parseLong(prop.getProperty("loadTest.durationSeconds", "10").trim())))
+            .lanes(Integer.parseInt(prop.getProperty("loadTest.lanes", "4").trim()))
+            .build()
+            .run();
+        
+        report.writeJson();
+        if (extentTest.get() != null) {
+            report.attachTo(extentTest.get());
+        }
+        
+        double maxErrorRate = Double.parseDouble(prop.getProperty("loadTest.maxErrorRate", "0.05").trim());
+        for (LoadReport.EndpointResult result : report.endpoints().values()) {
+            Assert.assertTrue(result.errorRate() <= maxErrorRate,
+                result.name() + " error rate " + result.errorRate() + " exceeds " + maxErrorRate);
+        }
+    }
+}
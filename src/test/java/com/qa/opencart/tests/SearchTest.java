@@ -1,5 +1,7 @@
 package com.qa.opencart.tests;
 
+import com.qa.opencart.pages.HomePage;
+import com.qa.opencart.pages.SearchPage;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -7,9 +9,27 @@ public class SearchTest extends BaseTest {
 
     @Test(dataProvider = "deviceData")
     public void searchDeviceTest(String deviceName, String expectedTitle) {
-        String actualTitle = homePage.doSearch(deviceName)
+        SearchPage.Snapshot results = homePage.doSearch(deviceName)
+                                              .getSearchResultsSnapshot();
+        Assert.assertEquals(results.title(), expectedTitle, 
+            "Search page title is not matching for device: " + deviceName);
+        Assert.assertEquals(results.productNames().size(), results.resultsCount(),
+            "Every search result should have a product name for device: " + deviceName);
+    }
+
+    @Test(dataProvider = "searchTermsStream")
+    public void searchTermFromDataFileTest(String term, String expectedTitle) {
+        String actualTitle = homePage.doSearch(term)
                                    .getSearchPageTitle();
-        Assert.assertEquals(actualTitle, expectedTitle, 
+        Assert.assertEquals(actualTitle, expectedTitle,
+            "Search page title is not matching for term: " + term);
+    }
+
+    @Test(dataProvider = "deviceDataParallel")
+    public void searchDeviceInIsolatedContextTest(String deviceName, String expectedTitle) {
+        String actualTitle = new HomePage(rowPage()).doSearch(deviceName)
+                                                    .getSearchPageTitle();
+        Assert.assertEquals(actualTitle, expectedTitle,
             "Search page title is not matching for device: " + deviceName);
     }
-} 
\ No newline at end of file
+}